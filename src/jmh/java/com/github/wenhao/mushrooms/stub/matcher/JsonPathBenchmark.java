@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonPathBenchmark {
+
+    private static final String BODY = "{\"store\":{\"book\":["
+            + "{\"category\":\"reference\",\"author\":\"Nigel Rees\",\"title\":\"Sayings of the Century\",\"price\":8.95},"
+            + "{\"category\":\"fiction\",\"author\":\"Evelyn Waugh\",\"title\":\"Sword of Honour\",\"price\":12.99},"
+            + "{\"category\":\"fiction\",\"author\":\"Herman Melville\",\"title\":\"Moby Dick\",\"isbn\":\"0-553-21311-3\",\"price\":8.99},"
+            + "{\"category\":\"fiction\",\"author\":\"J. R. R. Tolkien\",\"title\":\"The Lord of the Rings\",\"isbn\":\"0-395-19395-8\",\"price\":22.99}"
+            + "],\"bicycle\":{\"color\":\"red\",\"price\":19.95}},\"expensive\":10}";
+
+    @Param({"$.store.book[?(@.price < 10)]", "$.store.bicycle[?(@.color == 'blue')]", "$.store.book[*].isbn"})
+    private String path;
+
+    private JsonPath jsonPath;
+    private SimpleJsonPath simpleJsonPath;
+    private DocumentContext document;
+
+    @Setup
+    public void setUp() {
+        jsonPath = JsonPath.compile(path);
+        simpleJsonPath = SimpleJsonPath.compile(path);
+        document = JsonPath.using(JsonPathProvider.JSON_SMART.getConfiguration()).parse(BODY);
+    }
+
+    @Benchmark
+    public boolean jsonPath() {
+        final Object result = document.read(jsonPath);
+        final JsonProvider provider = document.configuration().jsonProvider();
+        return provider.isArray(result) && provider.length(result) != 0;
+    }
+
+    @Benchmark
+    public boolean simpleJsonPath() {
+        return simpleJsonPath.matches(document);
+    }
+}
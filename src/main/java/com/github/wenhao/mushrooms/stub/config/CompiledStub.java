@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import com.github.wenhao.mushrooms.stub.matcher.BodyExpectation;
+import com.github.wenhao.mushrooms.stub.matcher.CanonicalBody;
+import com.github.wenhao.mushrooms.stub.matcher.CompiledRequest;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import okio.ByteString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CompiledStub {
+
+    /**
+     * Position the stub is tried at: its declaration order, or its specificity rank in best-match mode.
+     */
+    private final int order;
+    private final Stub stub;
+    private final CompiledRequest request;
+    private final ByteString response;
+    private final boolean bodyDeclared;
+    /**
+     * Canonical body the stub is matched by exactly, {@code null} unless bodies are strict and the body is not an expression.
+     */
+    private final String canonicalBody;
+
+    private CompiledStub(final int order, final Stub stub, final boolean strictBody) {
+        this.order = order;
+        this.stub = stub;
+        this.request = CompiledRequest.of(stub.getRequest());
+        this.response = ByteString.encodeUtf8(Optional.ofNullable(stub.getResponse()).orElse(""));
+        this.bodyDeclared = isNotBlank(request.getBody());
+        this.canonicalBody = strictBody && bodyDeclared && !BodyExpectation.isExpression(request.getBody()) ?
+                CanonicalBody.of(request.getBody()) : null;
+    }
+
+    public static CompiledStub compile(final int order, final Stub stub, final boolean strictBody) {
+        return new CompiledStub(order, stub, strictBody);
+    }
+
+    /**
+     * The same compiled stub tried at another position.
+     */
+    public CompiledStub withOrder(final int rank) {
+        return new CompiledStub(rank, stub, request, response, bodyDeclared, canonicalBody);
+    }
+}
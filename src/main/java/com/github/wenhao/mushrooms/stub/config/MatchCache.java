@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of match results keyed by request fingerprint, so identical requests
+ * skip the matcher pipeline. Entries expire after the configured time to live, and results without
+ * a match are kept as well; expired entries are removed when they are read. It belongs to one
+ * {@link MatchPlan}, so a new stub set starts empty.
+ */
+public class MatchCache {
+
+    private final Duration ttl;
+    private final Map<Object, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MatchCache(final int capacity, final Duration ttl) {
+        this.ttl = ttl;
+        this.entries = Collections.synchronizedMap(new LruMap(capacity));
+    }
+
+    /**
+     * Live cached result for the fingerprint, otherwise the matcher's result, which is cached. The
+     * matcher runs outside the cache lock.
+     */
+    public Optional<CompiledStub> computeIfAbsent(final Object fingerprint, final Supplier<Optional<CompiledStub>> matcher) {
+        final Entry entry = entries.get(fingerprint);
+        if (entry != null && entry.expiresAt - System.nanoTime() >= 0) {
+            hits.incrementAndGet();
+            return entry.stub;
+        }
+        if (entry != null) {
+            entries.remove(fingerprint, entry);
+        }
+        misses.incrementAndGet();
+        final Optional<CompiledStub> stub = matcher.get();
+        entries.put(fingerprint, new Entry(stub, System.nanoTime() + ttl.toNanos()));
+        return stub;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class LruMap extends LinkedHashMap<Object, Entry> {
+
+        private static final long serialVersionUID = 1L;
+        private static final float LOAD_FACTOR = 0.75f;
+
+        private final int capacity;
+
+        private LruMap(final int capacity) {
+            super(capacity, LOAD_FACTOR, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Optional<CompiledStub> stub;
+        private final long expiresAt;
+    }
+}
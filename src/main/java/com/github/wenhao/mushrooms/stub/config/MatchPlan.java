@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import com.github.wenhao.mushrooms.stub.matcher.Specificity;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable view of the configured stubs with every matcher input compiled ahead of the first request, in declaration order
+ * or, in best-match mode, most specific first.
+ */
+@Getter
+public final class MatchPlan {
+
+    private static final int NEGATIVE_CACHE_CAPACITY = 10_000;
+
+    private final List<CompiledStub> stubs;
+    private final StubPartitions partitions;
+    private final NegativeMatchCache misses = new NegativeMatchCache(NEGATIVE_CACHE_CAPACITY);
+    @Getter(AccessLevel.NONE)
+    private final MatchCache matchCache;
+    private final boolean headerDeclared;
+    private final boolean strictBody;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Set<CompiledStub>> exactBodies = new HashMap<>();
+
+    private MatchPlan(final List<CompiledStub> stubs, final MatchCache matchCache, final boolean strictBody) {
+        this.stubs = unmodifiableList(stubs);
+        this.partitions = new StubPartitions(stubs);
+        this.matchCache = matchCache;
+        this.headerDeclared = stubs.stream().anyMatch(stub -> !stub.getRequest().getHeaderIndex().isEmpty());
+        this.strictBody = strictBody;
+        stubs.stream()
+                .filter(stub -> stub.getCanonicalBody() != null)
+                .forEach(stub -> exactBodies.computeIfAbsent(stub.getCanonicalBody(), key -> new HashSet<>()).add(stub));
+    }
+
+    /**
+     * Compiles the stubs with the given options. Under {@code bestMatch} they are ranked by {@link Specificity}, so the first
+     * match is the most specific one, and stubs equally specific keep their declaration order.
+     */
+    public static MatchPlan compile(final List<Stub> stubs, final MatchOptions options) {
+        final List<CompiledStub> compiled = IntStream.range(0, stubs.size())
+                .mapToObj(order -> CompiledStub.compile(order, stubs.get(order), options.isStrictBody()))
+                .collect(toList());
+        return new MatchPlan(options.isBestMatch() ? rank(compiled) : compiled, options.getMatchCacheSize() > 0 ?
+                new MatchCache(options.getMatchCacheSize(), options.getMatchCacheTtl()) : null, options.isStrictBody());
+    }
+
+    private static List<CompiledStub> rank(final List<CompiledStub> stubs) {
+        final List<CompiledStub> ranked = stubs.stream()
+                .sorted(comparing(CompiledStub::getRequest, Specificity.MOST_SPECIFIC_FIRST))
+                .collect(toList());
+        return IntStream.range(0, ranked.size())
+                .mapToObj(rank -> ranked.get(rank).withOrder(rank))
+                .collect(toList());
+    }
+
+    /**
+     * Stubs matched exactly whose canonical body is the given one.
+     */
+    public Set<CompiledStub> exactBodyStubs(final String canonicalBody) {
+        return exactBodies.getOrDefault(canonicalBody, emptySet());
+    }
+
+    public Optional<MatchCache> getMatchCache() {
+        return Optional.ofNullable(matchCache);
+    }
+}
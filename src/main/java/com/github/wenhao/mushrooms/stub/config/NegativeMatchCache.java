@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import lombok.Data;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request shapes, method plus path, that no stub can match whatever their headers, parameters or
+ * body. It belongs to one {@link MatchPlan}, so a new stub set starts empty. Once full it is cleared
+ * rather than tracking recency, which keeps lookups lock-free.
+ */
+public class NegativeMatchCache {
+
+    private final int capacity;
+    private final Set<Shape> shapes = ConcurrentHashMap.newKeySet();
+
+    public NegativeMatchCache(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean contains(final String method, final String path) {
+        return shapes.contains(new Shape(method, path));
+    }
+
+    public void add(final String method, final String path) {
+        if (shapes.size() >= capacity) {
+            shapes.clear();
+        }
+        shapes.add(new Shape(method, path));
+    }
+
+    @Data
+    private static class Shape {
+        private final String method;
+        private final String path;
+    }
+}
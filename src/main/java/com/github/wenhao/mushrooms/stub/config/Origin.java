@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.matcher.RegexLiteral;
+import lombok.Data;
+import okhttp3.HttpUrl;
+import static org.apache.commons.lang3.StringUtils.ordinalIndexOf;
+
+import java.util.Optional;
+
+/**
+ * Scheme, host and port a request is sent to, taken from {@link HttpUrl} components.
+ */
+@Data
+public class Origin {
+
+    public static final String ANY = "";
+
+    private final String scheme;
+    private final String host;
+    private final int port;
+
+    /**
+     * Origin of the url, or empty when user info makes its text differ from the bare origin.
+     */
+    public static Optional<Origin> of(final HttpUrl url) {
+        if (!url.encodedUsername().isEmpty() || !url.encodedPassword().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Origin(url.scheme(), url.host(), url.port()));
+    }
+
+    /**
+     * Origin part, up to the first path slash, of the literal prefix every match of the pattern starts
+     * with, or {@link #ANY} when the pattern leaves it open.
+     */
+    public static String prefixOf(final String pathPattern) {
+        final String literal = RegexLiteral.literalPrefix(pathPattern);
+        final int pathStart = ordinalIndexOf(literal, "/", 3);
+        return pathStart < 0 ? ANY : literal.substring(0, pathStart + 1);
+    }
+
+    /**
+     * Text {@link HttpUrl#toString()} starts with for this origin, up to the first path slash.
+     */
+    public String prefix() {
+        final String authority = host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+        final String explicitPort = port == HttpUrl.defaultPort(scheme) ? "" : ":" + port;
+        return scheme + "://" + authority + explicitPort + "/";
+    }
+}
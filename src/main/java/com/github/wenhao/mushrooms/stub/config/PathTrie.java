@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.matcher.FieldKind;
+import com.github.wenhao.mushrooms.stub.matcher.PatternSet;
+import com.github.wenhao.mushrooms.stub.matcher.RegexLiteral;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Character trie keyed by the literal prefix of stub path patterns. A {@code .} edge accepts any character.
+ * Each node checks its prefix and suffix patterns by string comparison and its other regexes together in
+ * one {@link PatternSet} pass, so only stubs whose whole path matches are collected.
+ */
+public class PathTrie {
+
+    private final Node root = new Node();
+
+    public void add(final String prefix, final CompiledStub stub) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), key -> new Node());
+        }
+        node.add(stub);
+    }
+
+    /**
+     * Compiles the regexes of every node, once the last stub has been added.
+     */
+    public void compile() {
+        root.compile();
+    }
+
+    public void collect(final String path, final List<CompiledStub> candidates) {
+        collect(root, path, 0, candidates);
+    }
+
+    private void collect(final Node node, final String path, final int depth, final List<CompiledStub> candidates) {
+        node.collect(path, candidates);
+        if (depth == path.length()) {
+            return;
+        }
+        final char character = path.charAt(depth);
+        final Node exact = node.children.get(character);
+        if (exact != null) {
+            collect(exact, path, depth + 1, candidates);
+        }
+        final Node any = character == RegexLiteral.ANY_CHARACTER ? null : node.children.get(RegexLiteral.ANY_CHARACTER);
+        if (any != null) {
+            collect(any, path, depth + 1, candidates);
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<CompiledStub> stubs = new ArrayList<>();
+        private final List<CompiledStub> regexStubs = new ArrayList<>();
+        private PatternSet regexPaths;
+
+        private void add(final CompiledStub stub) {
+            if (stub.getRequest().getPathPattern().getKind() == FieldKind.REGEX) {
+                regexStubs.add(stub);
+            } else {
+                stubs.add(stub);
+            }
+        }
+
+        private void compile() {
+            regexPaths = regexStubs.isEmpty() ? null : PatternSet.compile(regexStubs.stream()
+                    .map(stub -> stub.getRequest().getPath())
+                    .collect(toList()));
+            children.values().forEach(Node::compile);
+        }
+
+        private void collect(final String path, final List<CompiledStub> candidates) {
+            stubs.stream()
+                    .filter(stub -> stub.getRequest().getPathPattern().matches(path))
+                    .forEach(candidates::add);
+            if (regexPaths != null) {
+                regexPaths.matches(path).stream()
+                        .mapToObj(regexStubs::get)
+                        .forEach(candidates::add);
+            }
+        }
+    }
+}
@@ -24,22 +24,103 @@ package com.github.wenhao.mushrooms.stub.config;
 
 import com.github.wenhao.mushrooms.stub.dataloader.ResourceReader;
 import com.github.wenhao.mushrooms.stub.domain.Stub;
+import com.github.wenhao.mushrooms.stub.matcher.JsonPathProvider;
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class StubConfiguration {
 
+    private static final Duration DEFAULT_MATCH_CACHE_TTL = Duration.ofMinutes(1);
+
     private boolean enabled;
     private boolean failover;
     private List<Stub> stubs;
+    private int matchCacheSize;
+    private Duration matchCacheTtl = DEFAULT_MATCH_CACHE_TTL;
+    private JsonPathProvider jsonPathProvider = JsonPathProvider.JSON_SMART;
+    private boolean strictBody;
+    private boolean adaptiveMatcherOrder;
+    private boolean bestMatch;
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile MatchPlan plan;
+
+    public StubConfiguration(final boolean enabled, final boolean failover, final List<Stub> stubs) {
+        this(builder().enabled(enabled).failover(failover).stubs(stubs));
+    }
+
+    private StubConfiguration(final StubConfigurationBuilder builder) {
+        this.enabled = builder.enabled;
+        this.failover = builder.failover;
+        this.stubs = builder.stubs;
+        this.matchCacheSize = builder.matchCacheSize;
+        this.matchCacheTtl = builder.matchCacheTtl;
+        this.jsonPathProvider = builder.jsonPathProvider;
+        this.strictBody = builder.strictBody;
+        this.adaptiveMatcherOrder = builder.adaptiveMatcherOrder;
+        this.bestMatch = builder.bestMatch;
+        this.plan = compilePlan();
+    }
+
+    public void setStubs(final List<Stub> stubs) {
+        this.stubs = stubs;
+        this.plan = null;
+    }
+
+    public void setMatchCacheSize(final int matchCacheSize) {
+        this.matchCacheSize = matchCacheSize;
+        this.plan = null;
+    }
+
+    public void setMatchCacheTtl(final Duration matchCacheTtl) {
+        this.matchCacheTtl = matchCacheTtl;
+        this.plan = null;
+    }
+
+    /**
+     * Also drops cached match results, which were found with the previous provider.
+     */
+    public void setJsonPathProvider(final JsonPathProvider jsonPathProvider) {
+        this.jsonPathProvider = jsonPathProvider;
+        this.plan = null;
+    }
+
+    public void setStrictBody(final boolean strictBody) {
+        this.strictBody = strictBody;
+        this.plan = null;
+    }
+
+    public void setBestMatch(final boolean bestMatch) {
+        this.bestMatch = bestMatch;
+        this.plan = null;
+    }
+
+    public MatchPlan getPlan() {
+        MatchPlan current = plan;
+        if (current == null) {
+            current = compilePlan();
+            plan = current;
+        }
+        return current;
+    }
+
+    private MatchPlan compilePlan() {
+        return MatchPlan.compile(Optional.ofNullable(stubs).orElse(emptyList()), MatchOptions.builder()
+                .matchCacheSize(matchCacheSize).matchCacheTtl(matchCacheTtl).strictBody(strictBody).bestMatch(bestMatch).build());
+    }
 
     public static StubConfiguration.StubConfigurationBuilder builder() {
         return new StubConfiguration.StubConfigurationBuilder();
@@ -49,6 +130,12 @@ public class StubConfiguration {
         private boolean enabled;
         private boolean failover;
         private List<Stub> stubs;
+        private int matchCacheSize;
+        private Duration matchCacheTtl = DEFAULT_MATCH_CACHE_TTL;
+        private JsonPathProvider jsonPathProvider = JsonPathProvider.JSON_SMART;
+        private boolean strictBody;
+        private boolean adaptiveMatcherOrder;
+        private boolean bestMatch;
 
         StubConfigurationBuilder() {
         }
@@ -68,6 +155,36 @@ public class StubConfiguration {
             return this;
         }
 
+        public StubConfiguration.StubConfigurationBuilder matchCacheSize(int matchCacheSize) {
+            this.matchCacheSize = matchCacheSize;
+            return this;
+        }
+
+        public StubConfiguration.StubConfigurationBuilder matchCacheTtl(Duration matchCacheTtl) {
+            this.matchCacheTtl = matchCacheTtl;
+            return this;
+        }
+
+        public StubConfiguration.StubConfigurationBuilder jsonPathProvider(JsonPathProvider jsonPathProvider) {
+            this.jsonPathProvider = jsonPathProvider;
+            return this;
+        }
+
+        public StubConfiguration.StubConfigurationBuilder strictBody(boolean strictBody) {
+            this.strictBody = strictBody;
+            return this;
+        }
+
+        public StubConfiguration.StubConfigurationBuilder adaptiveMatcherOrder(boolean adaptiveMatcherOrder) {
+            this.adaptiveMatcherOrder = adaptiveMatcherOrder;
+            return this;
+        }
+
+        public StubConfiguration.StubConfigurationBuilder bestMatch(boolean bestMatch) {
+            this.bestMatch = bestMatch;
+            return this;
+        }
+
         public StubConfiguration build() {
             ResourceReader resourceReader = new ResourceReader();
             this.stubs = stubs.stream().peek(stub -> {
@@ -77,7 +194,7 @@ public class StubConfiguration {
                 }
                 stub.setResponse(Optional.ofNullable(stub.getResponse()).map(resourceReader::readAsString).orElse(""));
             }).collect(toList());
-            return new StubConfiguration(this.enabled, this.failover, this.stubs);
+            return new StubConfiguration(this);
         }
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.matcher.PatternSet;
+import com.github.wenhao.mushrooms.stub.matcher.RegexLiteral;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the stubs whose path pattern matches a request path. Literal paths are looked up by hash,
+ * patterns with a literal prefix through a {@link PathTrie}, and the rest are checked together in one
+ * pass of a {@link PatternSet}.
+ */
+public class StubIndex {
+
+    private final Map<String, List<CompiledStub>> exactPaths = new HashMap<>();
+    private final PathTrie prefixes = new PathTrie();
+    private final List<CompiledStub> fallback = new ArrayList<>();
+    private final PatternSet fallbackPaths;
+
+    public StubIndex(final List<CompiledStub> stubs) {
+        stubs.forEach(this::add);
+        prefixes.compile();
+        this.fallbackPaths = PatternSet.compile(fallback.stream().map(stub -> stub.getRequest().getPath()).collect(toList()));
+    }
+
+    public void collect(final String path, final List<CompiledStub> candidates) {
+        candidates.addAll(exactPaths.getOrDefault(path, emptyList()));
+        prefixes.collect(path, candidates);
+        fallbackPaths.matches(path).stream()
+                .mapToObj(fallback::get)
+                .forEach(candidates::add);
+    }
+
+    private void add(final CompiledStub stub) {
+        final String path = stub.getRequest().getPath();
+        if (RegexLiteral.isLiteral(path)) {
+            exactPaths.computeIfAbsent(path, key -> new ArrayList<>()).add(stub);
+            return;
+        }
+        final String prefix = RegexLiteral.literalPrefix(path);
+        if (prefix.isEmpty()) {
+            fallback.add(stub);
+        } else {
+            prefixes.add(prefix, stub);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.matcher.RegexLiteral;
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits stubs by literal HTTP method and by the origin their path pattern starts with, each bucket
+ * holding its own path index, so a request only looks at stubs declared for its method and downstream
+ * plus the ones left open. The origin buckets a request origin falls into are resolved once per origin.
+ */
+public class StubPartitions {
+
+    private static final String ANY_METHOD = "";
+    private static final int MAX_RESOLVED_ORIGINS = 1024;
+
+    private final Map<String, Map<String, StubIndex>> partitions = new HashMap<>();
+    private final List<String> originPrefixes;
+    private final Map<Origin, List<String>> resolvedOrigins = new ConcurrentHashMap<>();
+
+    public StubPartitions(final List<CompiledStub> stubs) {
+        final Map<String, Map<String, List<CompiledStub>>> grouped = new HashMap<>();
+        stubs.forEach(stub -> grouped.computeIfAbsent(methodKey(stub), key -> new HashMap<>())
+                .computeIfAbsent(Origin.prefixOf(stub.getRequest().getPath()), key -> new ArrayList<>())
+                .add(stub));
+        grouped.forEach((method, byOrigin) -> byOrigin.forEach((origin, bucket) ->
+                partitions.computeIfAbsent(method, key -> new HashMap<>()).put(origin, new StubIndex(bucket))));
+        this.originPrefixes = partitions.values().stream()
+                .flatMap(byOrigin -> byOrigin.keySet().stream())
+                .distinct()
+                .collect(toList());
+    }
+
+    public List<CompiledStub> candidates(final String method, final Optional<Origin> origin, final String path) {
+        final List<String> origins = origin.map(this::resolve).orElse(originPrefixes);
+        final List<CompiledStub> candidates = new ArrayList<>();
+        collect(partitions.get(method), origins, path, candidates);
+        collect(partitions.get(ANY_METHOD), origins, path, candidates);
+        candidates.sort(comparingInt(CompiledStub::getOrder));
+        return candidates;
+    }
+
+    private List<String> resolve(final Origin origin) {
+        final List<String> cached = resolvedOrigins.get(origin);
+        if (cached != null) {
+            return cached;
+        }
+        final String prefix = origin.prefix();
+        final List<String> resolved = originPrefixes.stream()
+                .filter(stubPrefix -> accepts(stubPrefix, prefix))
+                .collect(toList());
+        if (resolvedOrigins.size() < MAX_RESOLVED_ORIGINS) {
+            resolvedOrigins.put(origin, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * A stub origin prefix longer than the request's can still match when a wildcard lines up with its path slash.
+     */
+    private static boolean accepts(final String stubPrefix, final String prefix) {
+        if (stubPrefix.equals(Origin.ANY)) {
+            return true;
+        }
+        return stubPrefix.length() >= prefix.length() && RegexLiteral.matchesPrefix(stubPrefix, prefix, prefix.length());
+    }
+
+    private void collect(final Map<String, StubIndex> byOrigin, final List<String> origins, final String path,
+                         final List<CompiledStub> candidates) {
+        if (byOrigin == null) {
+            return;
+        }
+        origins.stream()
+                .map(byOrigin::get)
+                .filter(Objects::nonNull)
+                .forEach(index -> index.collect(path, candidates));
+    }
+
+    private static String methodKey(final CompiledStub stub) {
+        final String method = stub.getRequest().getMethod();
+        return RegexLiteral.isLiteral(method) ? method : ANY_METHOD;
+    }
+}
@@ -29,6 +29,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -42,4 +43,13 @@ public class Request implements Serializable {
     private String body;
     private List<Header> headers;
     private String contentType;
+    private Map<String, String> namespaces;
+
+    /**
+     * Constructor from before {@code namespaces} was added, kept for existing callers.
+     */
+    public Request(final String path, final String method, final List<Parameter> parameters, final String body,
+                   final List<Header> headers, final String contentType) {
+        this(path, method, parameters, body, headers, contentType, null);
+    }
 }
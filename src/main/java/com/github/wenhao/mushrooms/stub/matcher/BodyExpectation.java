@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.XML;
+import org.skyscreamer.jsonassert.JSONParser;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.substringAfter;
+
+import java.util.Map;
+
+/**
+ * Stub body compiled once at load time into the expression the body matchers evaluate. A document body
+ * is parsed into its JSON and XML representations only when a matcher first asks for each of them.
+ */
+@Getter
+public final class BodyExpectation {
+
+    static final String JSON_PATH_PREFIX = "jsonPath:";
+    static final String XPATH_PREFIX = "xpath:";
+    private static final BodyExpectation EMPTY = new BodyExpectation(null, null, null, null);
+
+    private final JsonPath jsonPath;
+    private final SimpleJsonPath simpleJsonPath;
+    private final CompiledXpath xpath;
+    @Getter(AccessLevel.NONE)
+    private final String document;
+    @Getter(lazy = true)
+    private final Object json = parseJson(document);
+    @Getter(lazy = true)
+    private final JSONObject xmlAsJson = parseXml(document);
+
+    private BodyExpectation(final JsonPath jsonPath, final SimpleJsonPath simpleJsonPath, final CompiledXpath xpath, final String document) {
+        this.jsonPath = jsonPath;
+        this.simpleJsonPath = simpleJsonPath;
+        this.xpath = xpath;
+        this.document = document;
+    }
+
+    public static BodyExpectation compile(final String body) {
+        return compile(body, null);
+    }
+
+    public static BodyExpectation compile(final String body, final Map<String, String> namespaces) {
+        if (isBlank(body)) {
+            return EMPTY;
+        }
+        if (body.startsWith(XPATH_PREFIX)) {
+            return new BodyExpectation(null, null, CompiledXpath.compile(substringAfter(body, XPATH_PREFIX), namespaces), null);
+        }
+        if (body.startsWith(JSON_PATH_PREFIX)) {
+            final JsonPath jsonPath = compileJsonPath(substringAfter(body, JSON_PATH_PREFIX));
+            final SimpleJsonPath simpleJsonPath = jsonPath == null ? null : SimpleJsonPath.compile(substringAfter(body, JSON_PATH_PREFIX));
+            return new BodyExpectation(jsonPath, simpleJsonPath, null, null);
+        }
+        return new BodyExpectation(null, null, null, body);
+    }
+
+    /**
+     * Whether the body is an xpath or jsonPath expression rather than a body to compare against.
+     */
+    public static boolean isExpression(final String body) {
+        return body.startsWith(XPATH_PREFIX) || body.startsWith(JSON_PATH_PREFIX);
+    }
+
+    private static JsonPath compileJsonPath(final String jsonPath) {
+        try {
+            return JsonPath.compile(jsonPath);
+        } catch (InvalidPathException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Object parseJson(final String body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return JSONParser.parseJSON(body);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private static JSONObject parseXml(final String body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return XML.toJSONObject(body);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
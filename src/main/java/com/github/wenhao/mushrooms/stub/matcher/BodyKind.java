@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Kind of a stub body, decided once when the stub is compiled.
+ */
+public enum BodyKind {
+    EMPTY,
+    JSON_PATH,
+    XPATH,
+    DOCUMENT;
+
+    public static BodyKind of(final String body) {
+        if (isBlank(body)) {
+            return EMPTY;
+        }
+        if (body.startsWith(BodyExpectation.JSON_PATH_PREFIX)) {
+            return JSON_PATH;
+        }
+        return body.startsWith(BodyExpectation.XPATH_PREFIX) ? XPATH : DOCUMENT;
+    }
+}
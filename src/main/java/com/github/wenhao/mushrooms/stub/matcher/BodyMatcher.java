@@ -25,24 +25,82 @@ package com.github.wenhao.mushrooms.stub.matcher;
 import com.github.wenhao.mushrooms.stub.domain.Request;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
-import lombok.AllArgsConstructor;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
-@AllArgsConstructor
+/**
+ * Matches the body with the first applicable {@link RequestBodyMatcher}. When every body matcher is a
+ * {@link TypedBodyMatcher}, the applicable one for each request media kind and stub body kind is looked
+ * up in a table built once instead of asking each matcher per stub.
+ */
 public class BodyMatcher implements RequestMatcher {
 
     private final List<RequestBodyMatcher> requestBodyMatchers;
+    private final RequestBodyMatcher[][] dispatch;
+
+    public BodyMatcher(final List<RequestBodyMatcher> requestBodyMatchers) {
+        this.requestBodyMatchers = requestBodyMatchers;
+        this.dispatch = requestBodyMatchers.stream().allMatch(TypedBodyMatcher.class::isInstance) ? dispatch(requestBodyMatchers) : null;
+    }
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
         if (isBlank(stubRequest.getBody())) {
             return true;
         }
+        if (dispatch != null) {
+            final RequestBodyMatcher matcher =
+                    dispatch[ParsedBody.of(realRequest).getMediaKind().ordinal()][CompiledRequest.of(stubRequest).getBodyKind().ordinal()];
+            return matcher != null && matcher.match(stubRequest, realRequest);
+        }
         return requestBodyMatchers.stream()
                 .filter(matcher -> matcher.isApplicable(stubRequest, realRequest))
                 .findFirst()
                 .map(matcher -> matcher.match(stubRequest, realRequest))
                 .orElse(false);
     }
+
+    /**
+     * With a dispatch table, the stub's body kind picks one column up front, so only the request media
+     * kind is looked up per request.
+     */
+    @Override
+    public Optional<Predicate<Request>> compile(final Request stubRequest) {
+        if (isBlank(stubRequest.getBody())) {
+            return Optional.empty();
+        }
+        if (dispatch == null) {
+            return Optional.of(realRequest -> match(stubRequest, realRequest));
+        }
+        final int bodyKind = CompiledRequest.of(stubRequest).getBodyKind().ordinal();
+        final RequestBodyMatcher[] byMediaKind = new RequestBodyMatcher[dispatch.length];
+        for (int mediaKind = 0; mediaKind < dispatch.length; mediaKind++) {
+            byMediaKind[mediaKind] = dispatch[mediaKind][bodyKind];
+        }
+        return Optional.of(realRequest -> {
+            final RequestBodyMatcher matcher = byMediaKind[ParsedBody.of(realRequest).getMediaKind().ordinal()];
+            return matcher != null && matcher.match(stubRequest, realRequest);
+        });
+    }
+
+    private static RequestBodyMatcher[][] dispatch(final List<RequestBodyMatcher> requestBodyMatchers) {
+        final RequestBodyMatcher[][] dispatch = new RequestBodyMatcher[MediaKind.values().length][BodyKind.values().length];
+        for (MediaKind mediaKind : MediaKind.values()) {
+            for (BodyKind bodyKind : BodyKind.values()) {
+                dispatch[mediaKind.ordinal()][bodyKind.ordinal()] = requestBodyMatchers.stream()
+                        .map(TypedBodyMatcher.class::cast)
+                        .filter(matcher -> matcher.isApplicable(mediaKind) && matcher.isApplicable(bodyKind))
+                        .findFirst()
+                        .orElse(null);
+            }
+        }
+        return dispatch;
+    }
+
+    @Override
+    public int cost() {
+        return 20;
+    }
 }
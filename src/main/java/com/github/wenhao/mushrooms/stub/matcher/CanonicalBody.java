@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Canonical form of a body for exact matching. JSON loses its whitespace and has its object keys
+ * sorted; XML loses its prolog, comments, processing instructions, whitespace-only text and prefixes
+ * (names are qualified by namespace URI) and has its attributes sorted. Any other body, or one that
+ * does not parse, is its own canonical form.
+ */
+public final class CanonicalBody {
+
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+
+    private CanonicalBody() {
+    }
+
+    public static String of(final String body) {
+        final String trimmed = StringUtils.trimToEmpty(body);
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            return json(body);
+        }
+        return trimmed.startsWith("<") ? xml(body) : body;
+    }
+
+    private static String json(final String body) {
+        try {
+            return sorted(new JsonParser().parse(body)).toString();
+        } catch (JsonParseException e) {
+            return body;
+        }
+    }
+
+    private static JsonElement sorted(final JsonElement element) {
+        if (element.isJsonObject()) {
+            final JsonObject sorted = new JsonObject();
+            element.getAsJsonObject().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> sorted.add(entry.getKey(), sorted(entry.getValue())));
+            return sorted;
+        }
+        if (element.isJsonArray()) {
+            final JsonArray sorted = new JsonArray();
+            element.getAsJsonArray().forEach(item -> sorted.add(sorted(item)));
+            return sorted;
+        }
+        return element;
+    }
+
+    private static String xml(final String body) {
+        try {
+            final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(body));
+            try {
+                return xml(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            return body;
+        }
+    }
+
+    private static String xml(final XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder canonical = new StringBuilder();
+        final StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == CHARACTERS || event == CDATA || event == SPACE) {
+                text.append(reader.getText());
+            } else if (event == START_ELEMENT || event == END_ELEMENT) {
+                appendText(canonical, text);
+                appendTag(canonical, reader);
+            }
+        }
+        return canonical.toString();
+    }
+
+    private static void appendText(final StringBuilder canonical, final StringBuilder text) {
+        canonical.append(escape(text.toString().trim()));
+        text.setLength(0);
+    }
+
+    private static void appendTag(final StringBuilder canonical, final XMLStreamReader reader) {
+        if (reader.isEndElement()) {
+            canonical.append("</>");
+            return;
+        }
+        final Map<String, String> attributes = new TreeMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(name(reader.getAttributeName(i)), reader.getAttributeValue(i));
+        }
+        canonical.append('<').append(name(reader.getName()));
+        attributes.forEach((name, value) -> canonical.append(' ').append(name).append("=\"").append(escape(value)).append('"'));
+        canonical.append('>');
+    }
+
+    private static String name(final QName name) {
+        return name.getNamespaceURI().isEmpty() ? name.getLocalPart() : "{" + name.getNamespaceURI() + "}" + name.getLocalPart();
+    }
+
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+    }
+
+    private static XMLInputFactory inputFactory() {
+        final XMLInputFactory factory = XmlInputFactories.untrusted();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
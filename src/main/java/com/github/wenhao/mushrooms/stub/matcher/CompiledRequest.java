@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import static java.util.Collections.emptyList;
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * Stub request with every field pattern and body expectation compiled up front, so matching never re-parses stub data.
+ */
+@Getter
+public final class CompiledRequest extends Request {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FieldPattern pathPattern;
+    private final FieldPattern methodPattern;
+    private final NameValueIndex headerIndex;
+    private final NameValueIndex parameterIndex;
+    private final BodyKind bodyKind;
+    private final BodyExpectation bodyExpectation;
+
+    private CompiledRequest(final Request request) {
+        super(request.getPath(), request.getMethod(), request.getParameters(), request.getBody(),
+                request.getHeaders(), request.getContentType(), request.getNamespaces());
+        this.pathPattern = compile(request.getPath());
+        this.methodPattern = compile(request.getMethod());
+        this.headerIndex = NameValueIndex.compileHeaders(Optional.ofNullable(request.getHeaders()).orElse(emptyList()));
+        this.parameterIndex = NameValueIndex.compileParameters(Optional.ofNullable(request.getParameters()).orElse(emptyList()));
+        this.bodyKind = BodyKind.of(request.getBody());
+        this.bodyExpectation = BodyExpectation.compile(request.getBody(), request.getNamespaces());
+    }
+
+    public static CompiledRequest of(final Request request) {
+        return request instanceof CompiledRequest ? (CompiledRequest) request : new CompiledRequest(request);
+    }
+
+    private static FieldPattern compile(final String regex) {
+        return Optional.ofNullable(regex).map(FieldPattern::compile).orElse(null);
+    }
+}
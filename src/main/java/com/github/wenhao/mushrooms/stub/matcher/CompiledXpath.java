@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import lombok.Getter;
+import org.w3c.dom.Document;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@code xpath:} stub compiled when the stub is loaded. With a prefix to namespace URI map the
+ * expression is compiled against those namespaces; without one every element name test is rewritten
+ * by {@link XpathLocalNames} to match on local names. XPath objects are not thread-safe, so each
+ * thread compiles its own copy once, from one {@link XPath} per thread. Expressions that
+ * {@link StreamingXpath} covers are evaluated without building a DOM.
+ */
+public final class CompiledXpath {
+
+    private static final Logger LOGGER = Logger.getLogger(CompiledXpath.class.getName());
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    @Getter
+    private final String expression;
+    private final ThreadLocal<XPathExpression> compiled;
+    private final StreamingXpath streaming;
+
+    private CompiledXpath(final String expression, final Map<String, String> namespaces) throws XPathExpressionException {
+        final boolean declared = namespaces != null && !namespaces.isEmpty();
+        final String source = declared ? expression : XpathLocalNames.rewrite(expression);
+        final NamespaceContext context = declared ? new MapNamespaceContext(namespaces) : null;
+        this.expression = expression;
+        this.compiled = ThreadLocal.withInitial(() -> compileQuietly(source, context));
+        this.compiled.set(compile(source, context));
+        this.streaming = StreamingXpath.compile(expression, namespaces);
+    }
+
+    public static CompiledXpath compile(final String expression) {
+        return compile(expression, Collections.emptyMap());
+    }
+
+    public static CompiledXpath compile(final String expression, final Map<String, String> namespaces) {
+        try {
+            return new CompiledXpath(expression, namespaces);
+        } catch (XPathExpressionException e) {
+            LOGGER.log(Level.INFO, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Streams the body whenever the expression allows it, even if another stub already parsed a DOM, so
+     * the outcome for a malformed body does not depend on which stubs were evaluated before.
+     */
+    public boolean matches(final ParsedBody body) {
+        if (streaming != null) {
+            return streaming.matches(body.body());
+        }
+        final Document document = body.getXmlDocument();
+        return document != null && matches(document);
+    }
+
+    public boolean matches(final Document document) {
+        try {
+            return (Boolean) compiled.get().evaluate(document, XPathConstants.BOOLEAN);
+        } catch (XPathExpressionException e) {
+            LOGGER.log(Level.INFO, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static XPathExpression compile(final String source, final NamespaceContext namespaces) throws XPathExpressionException {
+        final XPath xpath = XPATH.get();
+        xpath.reset();
+        if (namespaces != null) {
+            xpath.setNamespaceContext(namespaces);
+        }
+        return xpath.compile(source);
+    }
+
+    private static XPathExpression compileQuietly(final String source, final NamespaceContext namespaces) {
+        try {
+            return compile(source, namespaces);
+        } catch (XPathExpressionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
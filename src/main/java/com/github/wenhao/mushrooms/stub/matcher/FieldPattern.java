@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.regex.Pattern;
+
+/**
+ * Stub field pattern classified as literal, prefix, suffix or regex, so plain values are compared
+ * character by character and only true regexes reach the regex engine. Literal text may keep
+ * unquantified {@code .} wildcards, which are common in hosts and IP addresses.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FieldPattern {
+
+    private static final String ANY_TEXT = ".*";
+    private static final String ANY_TEXT_GROUP = "(.*)";
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    private final FieldKind kind;
+    private final String text;
+    private final boolean ignoreCase;
+    @Getter(AccessLevel.NONE)
+    private final Pattern pattern;
+
+    public static FieldPattern compile(final String regex) {
+        return compile(regex, false);
+    }
+
+    public static FieldPattern compileIgnoringCase(final String regex) {
+        return compile(regex, true);
+    }
+
+    private static FieldPattern compile(final String regex, final boolean ignoreCase) {
+        if (RegexLiteral.isWildcardLiteral(regex)) {
+            return new FieldPattern(FieldKind.LITERAL, regex, ignoreCase, null);
+        }
+        final String prefix = stripAnyText(regex, true);
+        if (RegexLiteral.isWildcardLiteral(prefix)) {
+            return new FieldPattern(FieldKind.PREFIX, prefix, ignoreCase, null);
+        }
+        final String suffix = stripAnyText(regex, false);
+        if (RegexLiteral.isWildcardLiteral(suffix)) {
+            return new FieldPattern(FieldKind.SUFFIX, suffix, ignoreCase, null);
+        }
+        return new FieldPattern(FieldKind.REGEX, regex, ignoreCase, Pattern.compile(regex, ignoreCase ? Pattern.CASE_INSENSITIVE : 0));
+    }
+
+    public boolean matches(final String value) {
+        switch (kind) {
+            case LITERAL:
+                return value.length() == text.length() && startsWith(value, 0);
+            case PREFIX:
+                return startsWith(value, 0) && isSingleLine(value, text.length(), value.length());
+            case SUFFIX:
+                return endsWith(value);
+            default:
+                return pattern.matcher(value).matches();
+        }
+    }
+
+    private boolean startsWith(final String value, final int offset) {
+        if (value.length() - offset < text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!sameCharacter(text.charAt(i), value.charAt(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameCharacter(final char expected, final char actual) {
+        if (expected == RegexLiteral.ANY_CHARACTER) {
+            return LINE_TERMINATORS.indexOf(actual) < 0;
+        }
+        return expected == actual || ignoreCase && Character.toUpperCase(expected) == Character.toUpperCase(actual);
+    }
+
+    private boolean endsWith(final String value) {
+        final int start = value.length() - text.length();
+        return start >= 0 && startsWith(value, start) && isSingleLine(value, 0, start);
+    }
+
+    private static String stripAnyText(final String regex, final boolean trailing) {
+        for (final String any : new String[]{ANY_TEXT_GROUP, ANY_TEXT}) {
+            if (trailing && regex.endsWith(any)) {
+                return regex.substring(0, regex.length() - any.length());
+            }
+            if (!trailing && regex.startsWith(any)) {
+                return regex.substring(any.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@code .} stops at line terminators, so the text a wildcard covers must not contain one.
+     */
+    private static boolean isSingleLine(final String value, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (LINE_TERMINATORS.indexOf(value.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -23,20 +23,39 @@
 package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
+import static java.util.Collections.emptyList;
 
-import java.util.Objects;
-
+import java.util.Optional;
+import java.util.function.Predicate;
 
+/**
+ * Matches when every real header is accepted by the stub's {@link NameValueIndex}. Headers of a
+ * {@link ParsedRequest} are read from okhttp directly.
+ */
 public class HeaderMatcher implements RequestMatcher {
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        if (Objects.isNull(stubRequest.getHeaders()) || stubRequest.getHeaders().isEmpty()) {
-            return true;
+        final NameValueIndex stubHeaders = CompiledRequest.of(stubRequest).getHeaderIndex();
+        return stubHeaders.isEmpty() || matchAll(stubHeaders, realRequest);
+    }
+
+    @Override
+    public Optional<Predicate<Request>> compile(final Request stubRequest) {
+        final NameValueIndex stubHeaders = CompiledRequest.of(stubRequest).getHeaderIndex();
+        return stubHeaders.isEmpty() ? Optional.empty() : Optional.of(realRequest -> matchAll(stubHeaders, realRequest));
+    }
+
+    private static boolean matchAll(final NameValueIndex stubHeaders, final Request realRequest) {
+        if (realRequest instanceof ParsedRequest) {
+            return stubHeaders.acceptsAll(((ParsedRequest) realRequest).getOkHttpHeaders());
         }
-        return realRequest.getHeaders().stream()
-                .allMatch(header -> stubRequest.getHeaders().stream()
-                        .anyMatch(stubHeader -> header.getName().matches(stubHeader.getName()) &&
-                                header.getValue().matches(stubHeader.getValue())));
+        return Optional.ofNullable(realRequest.getHeaders()).orElse(emptyList()).stream()
+                .allMatch(header -> stubHeaders.accepts(header.getName(), header.getValue()));
+    }
+
+    @Override
+    public int cost() {
+        return 3;
     }
 }
@@ -23,24 +23,39 @@
 package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
-import org.json.JSONException;
-import org.skyscreamer.jsonassert.JSONCompare;
+import org.json.JSONString;
 
-import static org.skyscreamer.jsonassert.JSONCompareMode.LENIENT;
+/**
+ * Matches JSON bodies leniently. The first stub compared against a request streams its body; once
+ * that has been recorded on the {@link ParsedBody}, later stubs share one parsed tree of it.
+ */
+public class JsonBodyMatcher implements TypedBodyMatcher {
 
-public class JsonBodyMatcher implements RequestBodyMatcher {
+    @Override
+    public boolean isApplicable(final MediaKind mediaKind) {
+        return mediaKind == MediaKind.JSON;
+    }
 
     @Override
-    public boolean isApplicable(final Request stubRequest, final Request realRequest) {
-        return realRequest.getContentType().contains("json");
+    public boolean isApplicable(final BodyKind bodyKind) {
+        return bodyKind == BodyKind.DOCUMENT;
     }
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        try {
-            return JSONCompare.compareJSON(stubRequest.getBody(), realRequest.getBody(), LENIENT).passed();
-        } catch (JSONException e) {
+        final Object expected = CompiledRequest.of(stubRequest).getBodyExpectation().getJson();
+        if (expected == null) {
             return false;
         }
+        final ParsedBody parsedBody = ParsedBody.of(realRequest);
+        if (expected instanceof JSONString) {
+            return JsonStreamMatcher.matches(expected, parsedBody.body());
+        }
+        if (!parsedBody.isJsonCompared()) {
+            parsedBody.markJsonCompared();
+            return JsonStreamMatcher.matches(expected, parsedBody.body());
+        }
+        final Object json = parsedBody.getJson();
+        return json != null && LenientJsonComparator.matches(expected, json);
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single comparison filter {@code @.a.b <op> literal} evaluated the way JsonPath evaluates it: a
+ * number on either side of {@code ==} compares numerically, two strings compare as text, the
+ * ordering operators only compare two numbers or two strings, and a missing property equals nothing.
+ */
+public final class JsonPathFilter {
+
+    private static final Pattern FILTER = Pattern.compile(
+            "\\s*@((?:\\.[A-Za-z_][A-Za-z0-9_]*)+)\\s*(==|!=|<=|>=|<|>)\\s*(-?\\d+(?:\\.\\d+)?|'[^'\\\\]*'|\"[^\"\\\\]*\"|true|false|null)\\s*");
+    private static final Pattern PROPERTY_SEPARATOR = Pattern.compile("\\.");
+
+    private final String[] properties;
+    private final String operator;
+    private final Object literal;
+
+    private JsonPathFilter(final String[] properties, final String operator, final Object literal) {
+        this.properties = properties;
+        this.operator = operator;
+        this.literal = literal;
+    }
+
+    public static Optional<JsonPathFilter> compile(final String filter) {
+        final Matcher matcher = FILTER.matcher(filter);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        final String[] properties = PROPERTY_SEPARATOR.split(matcher.group(1).substring(1));
+        return Optional.of(new JsonPathFilter(properties, matcher.group(2), literal(matcher.group(3))));
+    }
+
+    public boolean accepts(final Object node, final JsonProvider provider) {
+        final Object value = resolve(node, provider);
+        switch (operator) {
+            case "==":
+                return isEqual(value);
+            case "!=":
+                return !isEqual(value);
+            default:
+                return isOrdered(value);
+        }
+    }
+
+    private static Object literal(final String text) {
+        switch (text.charAt(0)) {
+            case '\'':
+            case '"':
+                return text.substring(1, text.length() - 1);
+            case 't':
+            case 'f':
+                return Boolean.valueOf(text);
+            case 'n':
+                return null;
+            default:
+                return new BigDecimal(text);
+        }
+    }
+
+    private Object resolve(final Object node, final JsonProvider provider) {
+        Object current = node;
+        for (String property : properties) {
+            if (!provider.isMap(current)) {
+                return JsonProvider.UNDEFINED;
+            }
+            current = provider.getMapValue(current, property);
+        }
+        return current == JsonProvider.UNDEFINED ? current : provider.unwrap(current);
+    }
+
+    private boolean isEqual(final Object value) {
+        if (value == JsonProvider.UNDEFINED) {
+            return false;
+        }
+        if (literal == null || value == null) {
+            return literal == value;
+        }
+        if (value instanceof Number) {
+            return isNumericallyEqual(new BigDecimal(value.toString()));
+        }
+        if (value instanceof String) {
+            return isTextuallyEqual((String) value);
+        }
+        return value.equals(literal);
+    }
+
+    private boolean isNumericallyEqual(final BigDecimal value) {
+        if (literal instanceof BigDecimal) {
+            return value.compareTo((BigDecimal) literal) == 0;
+        }
+        try {
+            return literal instanceof String && value.compareTo(new BigDecimal((String) literal)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean isTextuallyEqual(final String value) {
+        return (literal instanceof String || literal instanceof BigDecimal) && value.equals(literal.toString());
+    }
+
+    private boolean isOrdered(final Object value) {
+        final Integer comparison = compare(value);
+        if (comparison == null) {
+            return false;
+        }
+        switch (operator) {
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+        }
+    }
+
+    private Integer compare(final Object value) {
+        if (value instanceof Number) {
+            final BigDecimal number = new BigDecimal(value.toString());
+            return literal instanceof BigDecimal ? number.compareTo((BigDecimal) literal) : null;
+        }
+        if (value instanceof String && literal instanceof String) {
+            return ((String) value).compareTo((String) literal);
+        }
+        return null;
+    }
+}
@@ -23,24 +23,37 @@
 package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
-import org.apache.commons.lang3.StringUtils;
+import com.jayway.jsonpath.spi.json.JsonProvider;
 
-import java.util.List;
+public class JsonPathMatcher implements TypedBodyMatcher {
 
-public class JsonPathMatcher implements RequestBodyMatcher {
+    @Override
+    public boolean isApplicable(final MediaKind mediaKind) {
+        return mediaKind == MediaKind.JSON;
+    }
 
     @Override
-    public boolean isApplicable(final Request stubRequest, final Request realRequest) {
-        return realRequest.getContentType().contains("json") && stubRequest.getBody().startsWith("jsonPath:");
+    public boolean isApplicable(final BodyKind bodyKind) {
+        return bodyKind == BodyKind.JSON_PATH;
     }
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        final String jsonPath = StringUtils.substringAfter(stubRequest.getBody(), "jsonPath:");
+        final BodyExpectation expectation = CompiledRequest.of(stubRequest).getBodyExpectation();
+        final JsonPath jsonPath = expectation.getJsonPath();
+        final DocumentContext documentContext = jsonPath == null ? null : ParsedBody.of(realRequest).getDocumentContext();
+        if (documentContext == null) {
+            return false;
+        }
         try {
-            final List result = JsonPath.parse(realRequest.getBody()).read(jsonPath, List.class);
-            return result.size() != 0;
+            if (expectation.getSimpleJsonPath() != null) {
+                return expectation.getSimpleJsonPath().matches(documentContext);
+            }
+            final Object result = documentContext.read(jsonPath);
+            final JsonProvider jsonProvider = documentContext.configuration().jsonProvider();
+            return jsonProvider.isArray(result) && jsonProvider.length(result) != 0;
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Matches a real JSON body against a pre-parsed expectation while reading it with a lenient
+ * {@link JsonReader}. Objects are streamed, fields the expectation does not mention are skipped
+ * unread and the first mismatch ends the read; arrays are unordered, so they are read whole and
+ * handed to {@link LenientJsonComparator}. Values are typed the way org.json types them.
+ */
+public final class JsonStreamMatcher {
+
+    private JsonStreamMatcher() {
+    }
+
+    public static boolean matches(final Object expected, final String body) {
+        if (expected instanceof JSONString) {
+            return ((JSONString) expected).toJSONString().equals(body);
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            reader.setLenient(true);
+            return matches(expected, reader);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a whole body into the org.json tree {@link LenientJsonComparator} compares against.
+     */
+    public static Object parse(final String body) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            reader.setLenient(true);
+            return read(reader);
+        }
+    }
+
+    private static boolean matches(final Object expected, final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            return expected instanceof JSONObject && matchesObject((JSONObject) expected, reader);
+        }
+        return LenientJsonComparator.matches(expected, read(reader));
+    }
+
+    private static boolean matchesObject(final JSONObject expected, final JsonReader reader) throws IOException {
+        final Set<String> seen = new HashSet<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (!expected.has(name)) {
+                reader.skipValue();
+            } else if (!seen.add(name) || !matches(expected.get(name), reader)) {
+                return false;
+            }
+        }
+        reader.endObject();
+        return seen.size() == expected.length();
+    }
+
+    private static Object read(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY:
+                return readArray(reader);
+            case BEGIN_OBJECT:
+                return readObject(reader);
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return JSONObject.stringToValue(reader.nextString());
+            case BOOLEAN:
+                return reader.nextBoolean();
+            default:
+                reader.nextNull();
+                return JSONObject.NULL;
+        }
+    }
+
+    private static JSONArray readArray(final JsonReader reader) throws IOException {
+        final JSONArray array = new JSONArray();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            array.put(read(reader));
+        }
+        reader.endArray();
+        return array;
+    }
+
+    private static JSONObject readObject(final JsonReader reader) throws IOException {
+        final JSONObject object = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (object.has(name)) {
+                throw new JSONException("Duplicate key " + name);
+            }
+            object.put(name, read(reader));
+        }
+        reader.endObject();
+        return object;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Boolean-only version of JSONAssert's {@code LENIENT} comparison: the same rules for numbers, extra
+ * fields and unordered arrays, returning on the first difference without building a failure report.
+ */
+public final class LenientJsonComparator {
+
+    private LenientJsonComparator() {
+    }
+
+    public static boolean matches(final Object expected, final Object actual) {
+        if (expected instanceof Number && actual instanceof Number) {
+            return ((Number) expected).doubleValue() == ((Number) actual).doubleValue();
+        }
+        if (!expected.getClass().isAssignableFrom(actual.getClass())) {
+            return false;
+        }
+        if (expected instanceof JSONArray) {
+            return matchesArray((JSONArray) expected, (JSONArray) actual);
+        }
+        if (expected instanceof JSONObject) {
+            return matchesObject((JSONObject) expected, (JSONObject) actual);
+        }
+        return expected.equals(actual);
+    }
+
+    public static boolean matchesObject(final JSONObject expected, final JSONObject actual) {
+        for (final String key : expected.keySet()) {
+            if (!actual.has(key) || !matches(expected.get(key), actual.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesArray(final JSONArray expected, final JSONArray actual) {
+        if (expected.length() != actual.length()) {
+            return false;
+        }
+        if (all(expected, LenientJsonComparator::isSimpleValue)) {
+            return count(expected).equals(count(actual));
+        }
+        if (all(expected, JSONObject.class::isInstance)) {
+            final Optional<String> uniqueKey = new TreeSet<>(expected.getJSONObject(0).keySet()).stream()
+                    .filter(key -> isUniqueKey(key, expected))
+                    .findFirst();
+            if (uniqueKey.isPresent() && isUniqueKey(uniqueKey.get(), actual)) {
+                return matchesByKey(uniqueKey.get(), expected, actual);
+            }
+        }
+        return matchesInAnyOrder(expected, actual);
+    }
+
+    private static boolean matchesByKey(final String key, final JSONArray expected, final JSONArray actual) {
+        final Map<Object, JSONObject> actualById = new HashMap<>();
+        actual.forEach(element -> actualById.put(((JSONObject) element).get(key), (JSONObject) element));
+        for (final Object element : expected) {
+            final JSONObject actualElement = actualById.get(((JSONObject) element).get(key));
+            if (actualElement == null || !matchesObject((JSONObject) element, actualElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesInAnyOrder(final JSONArray expected, final JSONArray actual) {
+        final Set<Integer> matched = new HashSet<>();
+        for (final Object expectedElement : expected) {
+            if (!findMatch(expectedElement, actual, matched)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean findMatch(final Object expectedElement, final JSONArray actual, final Set<Integer> matched) {
+        for (int j = 0; j < actual.length(); j++) {
+            final Object actualElement = actual.get(j);
+            final boolean candidate = !matched.contains(j) && actualElement.getClass().equals(expectedElement.getClass());
+            if (candidate && matchesElement(expectedElement, actualElement)) {
+                matched.add(j);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesElement(final Object expected, final Object actual) {
+        if (expected instanceof JSONObject) {
+            return matchesObject((JSONObject) expected, (JSONObject) actual);
+        }
+        if (expected instanceof JSONArray) {
+            return matchesArray((JSONArray) expected, (JSONArray) actual);
+        }
+        return expected.equals(actual);
+    }
+
+    private static boolean isUniqueKey(final String key, final JSONArray array) {
+        final Set<Object> seen = new HashSet<>();
+        for (final Object element : array) {
+            if (!(element instanceof JSONObject) || !((JSONObject) element).has(key)) {
+                return false;
+            }
+            final Object value = ((JSONObject) element).get(key);
+            if (!isSimpleValue(value) || !seen.add(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean all(final JSONArray array, final Predicate<Object> predicate) {
+        for (final Object element : array) {
+            if (!predicate.test(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<Object, Integer> count(final JSONArray array) {
+        final Map<Object, Integer> counts = new HashMap<>();
+        array.forEach(element -> counts.merge(element, 1, Integer::sum));
+        return counts;
+    }
+
+    private static boolean isSimpleValue(final Object value) {
+        return !(value instanceof JSONObject) && !(value instanceof JSONArray);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Prefix to namespace URI map declared by an {@code xpath:} stub.
+ */
+public final class MapNamespaceContext implements NamespaceContext {
+
+    private final Map<String, String> namespaces;
+
+    public MapNamespaceContext(final Map<String, String> namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    @Override
+    public String getNamespaceURI(final String prefix) {
+        return namespaces.getOrDefault(prefix, XMLConstants.NULL_NS_URI);
+    }
+
+    @Override
+    public String getPrefix(final String namespaceURI) {
+        final Iterator<String> prefixes = getPrefixes(namespaceURI);
+        return prefixes.hasNext() ? prefixes.next() : null;
+    }
+
+    @Override
+    public Iterator<String> getPrefixes(final String namespaceURI) {
+        return namespaces.entrySet().stream()
+                .filter(namespace -> namespace.getValue().equals(namespaceURI))
+                .map(Map.Entry::getKey)
+                .iterator();
+    }
+}
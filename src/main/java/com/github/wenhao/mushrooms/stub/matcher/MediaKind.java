@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import okhttp3.MediaType;
+import static org.apache.commons.lang3.StringUtils.substringAfterLast;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Kind of a request body, classified once per request from its content type. Structured syntax
+ * suffixes count as their base type, so {@code application/problem+json} is JSON and
+ * {@code application/atom+xml} XML; {@code application/soap+xml} is SOAP.
+ */
+public enum MediaKind {
+    JSON("json"),
+    XML("xml"),
+    SOAP("soap+xml"),
+    FORM("x-www-form-urlencoded", "form-data"),
+    TEXT,
+    BINARY;
+
+    private static final Map<String, MediaKind> SUBTYPES = subtypeKinds();
+
+    private final String[] subtypes;
+
+    MediaKind(final String... subtypes) {
+        this.subtypes = subtypes;
+    }
+
+    public static MediaKind of(final String contentType) {
+        final MediaType mediaType = Optional.ofNullable(contentType).map(MediaType::parse).orElse(null);
+        if (mediaType == null) {
+            return BINARY;
+        }
+        final String subtype = mediaType.subtype();
+        final MediaKind kind = SUBTYPES.getOrDefault(subtype, SUBTYPES.get(substringAfterLast(subtype, "+")));
+        if (kind != null) {
+            return kind;
+        }
+        return "text".equals(mediaType.type()) ? TEXT : BINARY;
+    }
+
+    public boolean isXml() {
+        return this == XML || this == SOAP;
+    }
+
+    private static Map<String, MediaKind> subtypeKinds() {
+        final Map<String, MediaKind> kinds = new HashMap<>();
+        Arrays.stream(values()).forEach(kind -> Arrays.stream(kind.subtypes).forEach(subtype -> kinds.put(subtype, kind)));
+        return kinds;
+    }
+}
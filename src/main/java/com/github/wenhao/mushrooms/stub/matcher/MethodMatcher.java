@@ -24,10 +24,26 @@ package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
 
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
 public class MethodMatcher implements RequestMatcher {
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        return realRequest.getMethod().matches(stubRequest.getMethod());
+        final FieldPattern stubRequestMethod = CompiledRequest.of(stubRequest).getMethodPattern();
+        return Objects.isNull(stubRequestMethod) || stubRequestMethod.matches(realRequest.getMethod());
+    }
+
+    @Override
+    public Optional<Predicate<Request>> compile(final Request stubRequest) {
+        return Optional.ofNullable(CompiledRequest.of(stubRequest).getMethodPattern())
+                .map(stubRequestMethod -> realRequest -> stubRequestMethod.matches(realRequest.getMethod()));
+    }
+
+    @Override
+    public int cost() {
+        return 1;
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Header;
+import com.github.wenhao.mushrooms.stub.domain.Parameter;
+import okhttp3.Headers;
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Stub header or parameter criteria indexed by name. Literal names are looked up directly, header
+ * names lower-cased, and names that are patterns are checked one by one; a real value is accepted
+ * when a criterion for its name accepts it.
+ */
+public final class NameValueIndex {
+
+    private final boolean ignoreNameCase;
+    private final Map<String, List<FieldPattern>> literalNames = new HashMap<>();
+    private final List<NameValuePattern> patternNames = new ArrayList<>();
+
+    private NameValueIndex(final boolean ignoreNameCase) {
+        this.ignoreNameCase = ignoreNameCase;
+    }
+
+    public static NameValueIndex compileHeaders(final List<Header> headers) {
+        final NameValueIndex index = new NameValueIndex(true);
+        headers.forEach(header -> index.add(header.getName(), header.getValue()));
+        return index;
+    }
+
+    public static NameValueIndex compileParameters(final List<Parameter> parameters) {
+        final NameValueIndex index = new NameValueIndex(false);
+        parameters.forEach(parameter -> index.add(parameter.getName(), parameter.getValue()));
+        return index;
+    }
+
+    public boolean isEmpty() {
+        return literalNames.isEmpty() && patternNames.isEmpty();
+    }
+
+    /**
+     * Number of name and value criteria declared.
+     */
+    public int size() {
+        return literalNames.values().stream().mapToInt(List::size).sum() + patternNames.size();
+    }
+
+    public boolean accepts(final String name, final String value) {
+        return accepts(name, literalNames.getOrDefault(key(name), emptyList()), value);
+    }
+
+    /**
+     * Whether every value of the name is accepted, looking the name up once.
+     */
+    public boolean acceptsAll(final String name, final List<String> values) {
+        final List<FieldPattern> criteria = literalNames.getOrDefault(key(name), emptyList());
+        return values.stream().allMatch(value -> accepts(name, criteria, value));
+    }
+
+    /**
+     * Whether every header line is accepted, read straight from okhttp's name and value arrays.
+     */
+    public boolean acceptsAll(final Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (!accepts(headers.name(i), headers.value(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean accepts(final String name, final List<FieldPattern> criteria, final String value) {
+        return criteria.stream().anyMatch(pattern -> pattern.matches(value)) ||
+                patternNames.stream().anyMatch(pattern -> pattern.matches(name, value));
+    }
+
+    private void add(final String name, final String value) {
+        if (RegexLiteral.isLiteral(name)) {
+            literalNames.computeIfAbsent(key(name), key -> new ArrayList<>()).add(FieldPattern.compile(value));
+        } else {
+            patternNames.add(ignoreNameCase ?
+                    NameValuePattern.compileIgnoringNameCase(name, value) : NameValuePattern.compile(name, value));
+        }
+    }
+
+    private String key(final String name) {
+        return ignoreNameCase ? name.toLowerCase(Locale.ROOT) : name;
+    }
+}
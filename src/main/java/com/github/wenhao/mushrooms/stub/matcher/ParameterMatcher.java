@@ -22,21 +22,50 @@
 
 package com.github.wenhao.mushrooms.stub.matcher;
 
+import com.github.wenhao.mushrooms.stub.domain.Parameter;
 import com.github.wenhao.mushrooms.stub.domain.Request;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 
-import java.util.Objects;
-
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
+/**
+ * Matches when the request has query parameters and every one of them is accepted by the stub's
+ * {@link NameValueIndex}, looking each name up once.
+ */
 public class ParameterMatcher implements RequestMatcher {
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        if (Objects.isNull(stubRequest.getParameters()) || stubRequest.getParameters().isEmpty()) {
-            return true;
-        }
-        return realRequest.getParameters().stream()
-                .allMatch(parameter -> stubRequest.getParameters().stream()
-                        .anyMatch(stubParameter -> parameter.getName().matches(stubParameter.getName()) &&
-                                parameter.getValue().matches(stubParameter.getValue())));
+        final NameValueIndex stubParameters = CompiledRequest.of(stubRequest).getParameterIndex();
+        return stubParameters.isEmpty() || matchAll(stubParameters, realRequest);
+    }
+
+    @Override
+    public Optional<Predicate<Request>> compile(final Request stubRequest) {
+        final NameValueIndex stubParameters = CompiledRequest.of(stubRequest).getParameterIndex();
+        return stubParameters.isEmpty() ? Optional.empty() : Optional.of(realRequest -> matchAll(stubParameters, realRequest));
+    }
+
+    private static boolean matchAll(final NameValueIndex stubParameters, final Request realRequest) {
+        final Map<String, List<String>> parameters = realRequest instanceof ParsedRequest ?
+                ((ParsedRequest) realRequest).getQueryParameters() : group(realRequest.getParameters());
+        return !parameters.isEmpty() && parameters.entrySet().stream()
+                .allMatch(parameter -> stubParameters.acceptsAll(parameter.getKey(), parameter.getValue()));
+    }
+
+    private static Map<String, List<String>> group(final List<Parameter> parameters) {
+        return Optional.ofNullable(parameters).orElse(emptyList()).stream()
+                .collect(groupingBy(Parameter::getName, mapping(Parameter::getValue, toList())));
+    }
+
+    @Override
+    public int cost() {
+        return 4;
     }
 }
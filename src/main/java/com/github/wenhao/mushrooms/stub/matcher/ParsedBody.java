@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.StringReader;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Representations of one real request body, each parsed the first time a body matcher asks for it
+ * and shared by every stub compared against that request. A body that does not parse into a
+ * representation yields {@code null} for it, once.
+ */
+public class ParsedBody {
+
+    private static final Logger LOGGER = Logger.getLogger(ParsedBody.class.getName());
+    private static final String DISALLOW_DOCTYPE = "http://apache.org/xml/features/disallow-doctype-decl";
+    private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+    private static final String EXTERNAL_PARAMETER_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = namespaceAwareFactory();
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(ParsedBody::newDocumentBuilder);
+
+    private final Request request;
+    private final JsonPathProvider jsonPathProvider;
+    private final Lazy<Object> json = new Lazy<>(() -> JsonStreamMatcher.parse(body()));
+    private final Lazy<DocumentContext> documentContext = new Lazy<>(this::parseDocumentContext);
+    private final Lazy<Document> xmlDocument = new Lazy<>(this::parseXml);
+    private final Lazy<String> canonical = new Lazy<>(() -> CanonicalBody.of(body()));
+    private MediaKind mediaKind;
+    private boolean jsonCompared;
+
+    public ParsedBody(final Request request) {
+        this(request, JsonPathProvider.JSON_SMART);
+    }
+
+    public ParsedBody(final Request request, final JsonPathProvider jsonPathProvider) {
+        this.request = request;
+        this.jsonPathProvider = jsonPathProvider;
+    }
+
+    public static ParsedBody of(final Request request) {
+        return request instanceof ParsedRequest ? ((ParsedRequest) request).getParsedBody() : new ParsedBody(request);
+    }
+
+    public String body() {
+        return request.getBody();
+    }
+
+    /**
+     * {@link MediaKind} of the request's content type, classified on first use.
+     */
+    public MediaKind getMediaKind() {
+        if (mediaKind == null) {
+            mediaKind = MediaKind.of(request.getContentType());
+        }
+        return mediaKind;
+    }
+
+    /**
+     * Whether a JSON body comparison was already recorded for this request.
+     */
+    public boolean isJsonCompared() {
+        return jsonCompared;
+    }
+
+    public void markJsonCompared() {
+        jsonCompared = true;
+    }
+
+    public Object getJson() {
+        return json.get();
+    }
+
+    public DocumentContext getDocumentContext() {
+        return documentContext.get();
+    }
+
+    /**
+     * Namespace-aware DOM of the body.
+     */
+    public Document getXmlDocument() {
+        return xmlDocument.get();
+    }
+
+    /**
+     * {@link CanonicalBody} of the body, compared against the stub bodies indexed for exact matching.
+     */
+    public String getCanonicalBody() {
+        return canonical.get();
+    }
+
+    private DocumentContext parseDocumentContext() {
+        return JsonPath.using(jsonPathProvider.getConfiguration()).parse(body());
+    }
+
+    private Document parseXml() throws Exception {
+        final DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
+        documentBuilder.reset();
+        return documentBuilder.parse(new InputSource(new StringReader(body())));
+    }
+
+    /**
+     * Request bodies are untrusted, so documents declaring a DTD are rejected and no entity is resolved.
+     */
+    private static DocumentBuilderFactory namespaceAwareFactory() {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setExpandEntityReferences(false);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(DISALLOW_DOCTYPE, true);
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        return factory;
+    }
+
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Lazy<T> {
+        private final Callable<T> parser;
+        private boolean parsed;
+        private T value;
+
+        Lazy(final Callable<T> parser) {
+            this.parser = parser;
+        }
+
+        T get() {
+            if (!parsed) {
+                parsed = true;
+                try {
+                    value = parser.call();
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, e.getMessage(), e);
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -24,12 +24,27 @@ package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
 
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
 public class PathMatcher implements RequestMatcher {
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        final String stubRequestPath = stubRequest.getPath();
+        final FieldPattern stubRequestPath = CompiledRequest.of(stubRequest).getPathPattern();
         final String realRequestPath = realRequest.getPath();
-        return realRequestPath.matches(stubRequestPath);
+        return Objects.isNull(stubRequestPath) || stubRequestPath.matches(realRequestPath);
+    }
+
+    @Override
+    public Optional<Predicate<Request>> compile(final Request stubRequest) {
+        return Optional.ofNullable(CompiledRequest.of(stubRequest).getPathPattern())
+                .map(stubRequestPath -> realRequest -> stubRequestPath.matches(realRequest.getPath()));
+    }
+
+    @Override
+    public int cost() {
+        return 2;
     }
 }
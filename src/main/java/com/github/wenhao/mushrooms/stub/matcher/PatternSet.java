@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches one value against many regexes with a few combined patterns. Every regex becomes an
+ * optional lookahead anchored at the end of input and followed by an empty marker group, so one
+ * {@link Matcher#lookingAt()} per chunk of {@value #CHUNK_SIZE} regexes reports, through the markers
+ * that took part, every regex matching the whole value; chunking keeps each combined pattern small
+ * enough to compile. Regexes with back references, named groups, quoting or comments could clash with
+ * their neighbours once merged and are kept apart; {@code null} matches everything, as it does for a stub field.
+ */
+public final class PatternSet {
+
+    private static final int CHUNK_SIZE = 256;
+    private static final Pattern UNCOMBINABLE = Pattern.compile("\\\\[1-9]|\\\\k<|\\\\Q|\\(\\?<[a-zA-Z]|\\(\\?[a-zA-Z-]*x");
+
+    private final int size;
+    private final List<Pattern> chunks = new ArrayList<>();
+    private final int[] chunkIndexes;
+    private final int[] markers;
+    private final List<Pattern> separate = new ArrayList<>();
+    private final StringBuilder lookaheads = new StringBuilder();
+    private int combinedInChunk;
+    private int groups;
+
+    private PatternSet(final List<String> regexes) {
+        this.size = regexes.size();
+        this.chunkIndexes = new int[size];
+        this.markers = new int[size];
+        for (int i = 0; i < size; i++) {
+            add(i, regexes.get(i));
+        }
+        if (combinedInChunk > 0) {
+            closeChunk();
+        }
+    }
+
+    public static PatternSet compile(final List<String> regexes) {
+        return new PatternSet(regexes);
+    }
+
+    public BitSet matches(final String value) {
+        final BitSet matched = new BitSet(size);
+        final Matcher[] scans = new Matcher[chunks.size()];
+        for (int chunk = 0; chunk < scans.length; chunk++) {
+            final Matcher matcher = chunks.get(chunk).matcher(value);
+            scans[chunk] = matcher.lookingAt() ? matcher : null;
+        }
+        for (int i = 0; i < size; i++) {
+            matched.set(i, matches(i, value, scans));
+        }
+        return matched;
+    }
+
+    private boolean matches(final int index, final String value, final Matcher[] scans) {
+        if (separate.get(index) != null) {
+            return separate.get(index).matcher(value).matches();
+        }
+        if (markers[index] == 0) {
+            return true;
+        }
+        final Matcher scan = scans[chunkIndexes[index]];
+        return scan != null && scan.start(markers[index]) >= 0;
+    }
+
+    private void add(final int index, final String regex) {
+        final Pattern pattern = regex == null ? null : Pattern.compile(regex);
+        final boolean combinable = pattern != null && !UNCOMBINABLE.matcher(regex).find();
+        separate.add(combinable ? null : pattern);
+        if (!combinable) {
+            return;
+        }
+        groups += pattern.matcher("").groupCount() + 1;
+        markers[index] = groups;
+        chunkIndexes[index] = chunks.size();
+        lookaheads.append("(?:(?=(?:").append(regex).append(")\\z())|)");
+        if (++combinedInChunk == CHUNK_SIZE) {
+            closeChunk();
+        }
+    }
+
+    private void closeChunk() {
+        chunks.add(Pattern.compile(lookaheads.toString()));
+        lookaheads.setLength(0);
+        combinedInChunk = 0;
+        groups = 0;
+    }
+}
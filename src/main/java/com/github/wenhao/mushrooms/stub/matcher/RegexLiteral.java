@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+/**
+ * Reads the literal text a regex must start with, so stubs can be indexed without running the regex engine.
+ * Prefixes keep unquantified {@code .} as a single-character wildcard, since URLs are full of them.
+ */
+public final class RegexLiteral {
+
+    public static final char ANY_CHARACTER = '.';
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String PREFIX_STOP_CHARACTERS = "\\^$|?*+()[]{}";
+    private static final String QUANTIFIERS = "?*+{";
+
+    private RegexLiteral() {
+    }
+
+    public static boolean isLiteral(final String regex) {
+        return regex != null && regex.chars().noneMatch(c -> META_CHARACTERS.indexOf(c) >= 0);
+    }
+
+    /**
+     * Literal apart from unquantified {@code .} wildcards.
+     */
+    public static boolean isWildcardLiteral(final String regex) {
+        return regex != null && regex.equals(literalPrefix(regex));
+    }
+
+    public static boolean matchesPrefix(final String prefix, final String value, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (prefix.charAt(i) != ANY_CHARACTER && prefix.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String literalPrefix(final String regex) {
+        if (regex == null || regex.indexOf('|') >= 0) {
+            return "";
+        }
+        int end = 0;
+        while (end < regex.length() && PREFIX_STOP_CHARACTERS.indexOf(regex.charAt(end)) < 0) {
+            end++;
+        }
+        final boolean quantified = end < regex.length() && QUANTIFIERS.indexOf(regex.charAt(end)) >= 0;
+        return regex.substring(0, quantified ? Math.max(0, end - 1) : end);
+    }
+}
@@ -24,8 +24,29 @@ package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 @FunctionalInterface
 public interface RequestMatcher {
 
+    int DEFAULT_COST = 10;
+
     boolean match(Request stubRequest, Request realRequest);
+
+    /**
+     * Relative cost of one {@link #match} call, so cheap matchers run first. The built-in matchers
+     * range from 1 for the method to 20 for the body; other matchers default to {@value #DEFAULT_COST}.
+     */
+    default int cost() {
+        return DEFAULT_COST;
+    }
+
+    /**
+     * This matcher specialized to one stub, or empty when the stub declares nothing this matcher
+     * checks. Matchers that cannot specialize keep the default, which calls {@link #match} as is.
+     */
+    default Optional<Predicate<Request>> compile(final Request stubRequest) {
+        return Optional.of(realRequest -> match(stubRequest, realRequest));
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code jsonPath:} stub compiled into a direct walk over the parsed request body. Covers paths made
+ * of properties, indexes, wildcards and single comparison filters, and matches exactly when JsonPath
+ * would read a non-empty array for the same path. {@link #compile(String)} returns {@code null} for
+ * any other path, which is left to JsonPath.
+ */
+public final class SimpleJsonPath {
+
+    private static final Pattern STEP = Pattern.compile(
+            "\\.([A-Za-z_][A-Za-z0-9_]*)|\\['([^'\\\\]*)'\\]|(\\.\\*|\\[\\*\\])|\\[(\\d{1,9})\\]|\\[\\?\\((.*?)\\)\\]");
+    private static final int PROPERTY = 1;
+    private static final int QUOTED_PROPERTY = 2;
+    private static final int WILDCARD = 3;
+    private static final int INDEX = 4;
+    private static final int FILTER = 5;
+
+    private final Step first;
+
+    private SimpleJsonPath(final Step first) {
+        this.first = first;
+    }
+
+    public static SimpleJsonPath compile(final String jsonPath) {
+        final List<MatchResult> steps = steps(jsonPath);
+        if (steps == null) {
+            return null;
+        }
+        Step step = isDefinite(steps) ? SimpleJsonPath::isNonEmptyArray : (node, provider) -> true;
+        for (int index = steps.size() - 1; index >= 0 && step != null; index--) {
+            step = step(steps.get(index), step);
+        }
+        return step == null ? null : new SimpleJsonPath(step);
+    }
+
+    public boolean matches(final DocumentContext document) {
+        return first.reaches(document.json(), document.configuration().jsonProvider());
+    }
+
+    private static List<MatchResult> steps(final String jsonPath) {
+        if (jsonPath == null || !jsonPath.startsWith("$")) {
+            return null;
+        }
+        final List<MatchResult> steps = new ArrayList<>();
+        final Matcher matcher = STEP.matcher(jsonPath);
+        for (int start = 1; start < jsonPath.length(); start = matcher.end()) {
+            if (!matcher.region(start, jsonPath.length()).lookingAt()) {
+                return null;
+            }
+            steps.add(matcher.toMatchResult());
+        }
+        return steps;
+    }
+
+    private static boolean isDefinite(final List<MatchResult> steps) {
+        return steps.stream().allMatch(step -> step.group(WILDCARD) == null && step.group(FILTER) == null);
+    }
+
+    private static Step step(final MatchResult step, final Step next) {
+        if (step.group(PROPERTY) != null) {
+            return property(step.group(PROPERTY), next);
+        }
+        if (step.group(QUOTED_PROPERTY) != null) {
+            return property(step.group(QUOTED_PROPERTY), next);
+        }
+        if (step.group(WILDCARD) != null) {
+            return (node, provider) -> anyChild(node, provider, next);
+        }
+        if (step.group(INDEX) != null) {
+            return index(Integer.parseInt(step.group(INDEX)), next);
+        }
+        return JsonPathFilter.compile(step.group(FILTER)).map(filter -> filter(filter, next)).orElse(null);
+    }
+
+    private static Step property(final String name, final Step next) {
+        return (node, provider) -> {
+            if (!provider.isMap(node)) {
+                return false;
+            }
+            final Object value = provider.getMapValue(node, name);
+            return value != JsonProvider.UNDEFINED && next.reaches(value, provider);
+        };
+    }
+
+    private static Step index(final int index, final Step next) {
+        return (node, provider) -> provider.isArray(node) && index < provider.length(node) &&
+                next.reaches(provider.getArrayIndex(node, index), provider);
+    }
+
+    private static Step filter(final JsonPathFilter filter, final Step next) {
+        final Step accepted = (node, provider) -> filter.accepts(node, provider) && next.reaches(node, provider);
+        return (node, provider) -> provider.isArray(node) ?
+                anyElement(node, provider, accepted)
+                : provider.isMap(node) && accepted.reaches(node, provider);
+    }
+
+    private static boolean anyChild(final Object node, final JsonProvider provider, final Step next) {
+        if (provider.isArray(node)) {
+            return anyElement(node, provider, next);
+        }
+        if (provider.isMap(node)) {
+            for (String key : provider.getPropertyKeys(node)) {
+                if (next.reaches(provider.getMapValue(node, key), provider)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyElement(final Object node, final JsonProvider provider, final Step next) {
+        for (Object element : provider.toIterable(node)) {
+            if (next.reaches(element, provider)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNonEmptyArray(final Object node, final JsonProvider provider) {
+        return provider.isArray(node) && provider.length(node) > 0;
+    }
+
+    private interface Step {
+        boolean reaches(Object node, JsonProvider provider);
+    }
+}
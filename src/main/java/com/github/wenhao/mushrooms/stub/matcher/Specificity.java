@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import static java.util.Comparator.comparingInt;
+
+import java.util.Comparator;
+
+/**
+ * How specific a stub request is, so the stub most likely to win is tried first: literal paths before
+ * prefix and suffix patterns before regular expressions, then more declared criteria, then more fixed
+ * path text.
+ */
+public final class Specificity {
+
+    public static final Comparator<CompiledRequest> MOST_SPECIFIC_FIRST = comparingInt(Specificity::pathRank)
+            .thenComparingInt(Specificity::criteria)
+            .thenComparingInt(Specificity::fixedPathLength)
+            .reversed();
+
+    private Specificity() {
+    }
+
+    static int pathRank(final CompiledRequest request) {
+        final FieldPattern path = request.getPathPattern();
+        if (path == null) {
+            return 0;
+        }
+        switch (path.getKind()) {
+            case LITERAL:
+                return 3;
+            case REGEX:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * Number of method, header, query parameter and body criteria the request declares.
+     */
+    static int criteria(final CompiledRequest request) {
+        return (request.getMethodPattern() == null ? 0 : 1) + request.getHeaderIndex().size() + request.getParameterIndex().size() +
+                (request.getBodyKind() == BodyKind.EMPTY ? 0 : 1);
+    }
+
+    static int fixedPathLength(final CompiledRequest request) {
+        final FieldPattern path = request.getPathPattern();
+        if (path == null) {
+            return 0;
+        }
+        return path.getKind() == FieldKind.REGEX ? RegexLiteral.literalPrefix(path.getText()).length() : path.getText().length();
+    }
+}
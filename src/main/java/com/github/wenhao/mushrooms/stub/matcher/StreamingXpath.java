@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boolean XPath over absolute child paths with equality predicates, such as
+ * {@code /Envelope/Body/GetBookRequest[BookName='Java']}, evaluated in one forward StAX pass without
+ * building a DOM. The pass stops as soon as the answer is known: when the root element does not match
+ * or when a complete matching path has been seen. {@link #compile(String, Map)} returns {@code null}
+ * for expressions outside that subset.
+ */
+public final class StreamingXpath {
+
+    private static final XMLInputFactory INPUT_FACTORY = XmlInputFactories.untrusted();
+    private static final String STEP = "/(" + StreamingXpathStep.NAME + ")((?:" + StreamingXpathStep.PREDICATE + ")*)";
+    private static final Pattern PATH = Pattern.compile("(?:" + STEP + ")+");
+    private static final Pattern STEPS = Pattern.compile(STEP);
+
+    private final List<StreamingXpathStep> steps;
+
+    private StreamingXpath(final List<StreamingXpathStep> steps) {
+        this.steps = steps;
+    }
+
+    public static StreamingXpath compile(final String expression, final Map<String, String> namespaces) {
+        if (!PATH.matcher(expression).matches()) {
+            return null;
+        }
+        final List<StreamingXpathStep> steps = new ArrayList<>();
+        final Matcher step = STEPS.matcher(expression);
+        while (step.find()) {
+            final StreamingXpathStep compiled = StreamingXpathStep.compile(step.group(1), step.group(2), namespaces);
+            if (compiled == null) {
+                return null;
+            }
+            steps.add(compiled);
+        }
+        return new StreamingXpath(steps);
+    }
+
+    public boolean matches(final String body) {
+        try {
+            final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(body));
+            try {
+                return new Evaluation(reader).evaluate();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            return false;
+        }
+    }
+
+    private final class Evaluation {
+        private final XMLStreamReader reader;
+        private final List<Frame> frames = new ArrayList<>();
+        private Boolean answer;
+        private int collecting;
+
+        Evaluation(final XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        boolean evaluate() throws XMLStreamException {
+            while (answer == null && reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    start();
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    end();
+                } else if (collecting > 0 && reader.isCharacters()) {
+                    frames.stream().filter(frame -> frame.text != null).forEach(frame -> frame.text.append(reader.getText()));
+                }
+            }
+            return Boolean.TRUE.equals(answer);
+        }
+
+        private void start() {
+            final int depth = frames.size();
+            final Frame parent = depth == 0 ? null : frames.get(depth - 1);
+            final boolean onPath = isOnPath(parent, depth);
+            final Frame frame = new Frame(onPath ? depth : -1, parent != null && parent.isTesting(reader));
+            frames.add(frame);
+            collecting += frame.text == null ? 0 : 1;
+            if (depth == 0 && !onPath) {
+                answer = false;
+            } else {
+                answerIfSatisfied(depth);
+            }
+        }
+
+        private boolean isOnPath(final Frame parent, final int depth) {
+            return (parent == null || parent.step == depth - 1) && depth < steps.size() && steps.get(depth).matchesElement(reader);
+        }
+
+        private void end() {
+            final Frame frame = frames.remove(frames.size() - 1);
+            if (frames.isEmpty()) {
+                answer = false;
+            } else if (frame.text != null) {
+                collecting--;
+                final Frame parent = frames.get(frames.size() - 1);
+                steps.get(parent.step).test(reader.getNamespaceURI(), reader.getLocalName(), frame.text.toString(), parent.satisfied);
+                answerIfSatisfied(frames.size() - 1);
+            }
+        }
+
+        private void answerIfSatisfied(final int depth) {
+            for (int index = depth; index >= 0 && frames.get(index).isSatisfied(); index--) {
+                if (index == 0) {
+                    answer = true;
+                } else {
+                    frames.get(index - 1).continued = true;
+                }
+            }
+        }
+    }
+
+    private final class Frame {
+        private final int step;
+        private final StringBuilder text;
+        private final BitSet satisfied = new BitSet();
+        private boolean continued;
+
+        Frame(final int step, final boolean collecting) {
+            this.step = step;
+            this.text = collecting ? new StringBuilder() : null;
+            this.continued = step == steps.size() - 1;
+        }
+
+        boolean isTesting(final XMLStreamReader reader) {
+            return step >= 0 && steps.get(step).isTested(reader);
+        }
+
+        boolean isSatisfied() {
+            return step >= 0 && continued && satisfied.cardinality() == steps.get(step).childPredicates();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One child step of a {@link StreamingXpath}: an element name with equality predicates on
+ * attributes ({@code [@id='1']}) and on the text of child elements ({@code [BookName='Java']}).
+ * Without declared namespaces element names match on local name only, as {@link XpathLocalNames} does.
+ */
+public final class StreamingXpathStep {
+
+    static final String NAME = "(?:[A-Za-z_][\\w.\\-]*:)?[A-Za-z_][\\w.\\-]*";
+    static final String PREDICATE = "\\[\\s*(@?" + NAME + ")\\s*=\\s*('[^']*'|\"[^\"]*\")\\s*]";
+    private static final Pattern PREDICATES = Pattern.compile(PREDICATE);
+
+    private final XmlName name;
+    private final List<XmlName> attributeNames = new ArrayList<>();
+    private final List<String> attributeValues = new ArrayList<>();
+    private final List<XmlName> childNames = new ArrayList<>();
+    private final List<String> childValues = new ArrayList<>();
+
+    private StreamingXpathStep(final XmlName name) {
+        this.name = name;
+    }
+
+    static StreamingXpathStep compile(final String name, final String predicates, final Map<String, String> namespaces) {
+        final XmlName elementName = XmlName.of(name, namespaces, false);
+        final StreamingXpathStep step = elementName == null ? null : new StreamingXpathStep(elementName);
+        final Matcher predicate = PREDICATES.matcher(predicates);
+        while (step != null && predicate.find()) {
+            final String literal = predicate.group(2);
+            if (!step.addPredicate(predicate.group(1), literal.substring(1, literal.length() - 1), namespaces)) {
+                return null;
+            }
+        }
+        return step;
+    }
+
+    private boolean addPredicate(final String name, final String value, final Map<String, String> namespaces) {
+        final boolean attribute = name.startsWith("@");
+        final XmlName predicateName = XmlName.of(attribute ? name.substring(1) : name, namespaces, attribute);
+        if (predicateName == null) {
+            return false;
+        }
+        (attribute ? attributeNames : childNames).add(predicateName);
+        (attribute ? attributeValues : childValues).add(value);
+        return true;
+    }
+
+    boolean matchesElement(final XMLStreamReader reader) {
+        if (!name.matches(reader.getNamespaceURI(), reader.getLocalName())) {
+            return false;
+        }
+        for (int index = 0; index < attributeNames.size(); index++) {
+            if (!attributeValues.get(index).equals(attributeValue(reader, attributeNames.get(index)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int childPredicates() {
+        return childNames.size();
+    }
+
+    boolean isTested(final XMLStreamReader reader) {
+        return childNames.stream().anyMatch(childName -> childName.matches(reader.getNamespaceURI(), reader.getLocalName()));
+    }
+
+    void test(final String namespaceUri, final String localName, final String text, final BitSet satisfied) {
+        for (int index = 0; index < childNames.size(); index++) {
+            if (childNames.get(index).matches(namespaceUri, localName) && childValues.get(index).equals(text)) {
+                satisfied.set(index);
+            }
+        }
+    }
+
+    private static String attributeValue(final XMLStreamReader reader, final XmlName attributeName) {
+        for (int index = 0; index < reader.getAttributeCount(); index++) {
+            if (attributeName.matches(reader.getAttributeNamespace(index), reader.getAttributeLocalName(index))) {
+                return reader.getAttributeValue(index);
+            }
+        }
+        return null;
+    }
+
+    private static final class XmlName {
+        private final String namespaceUri;
+        private final String localName;
+
+        private XmlName(final String namespaceUri, final String localName) {
+            this.namespaceUri = namespaceUri;
+            this.localName = localName;
+        }
+
+        static XmlName of(final String name, final Map<String, String> namespaces, final boolean attribute) {
+            final int colon = name.indexOf(':');
+            final String localName = name.substring(colon + 1);
+            if (namespaces == null || namespaces.isEmpty()) {
+                return local(localName, attribute, colon >= 0);
+            }
+            final String namespaceUri = colon < 0 ? "" : namespaces.get(name.substring(0, colon));
+            return namespaceUri == null ? null : new XmlName(namespaceUri, localName);
+        }
+
+        private static XmlName local(final String localName, final boolean attribute, final boolean prefixed) {
+            if (attribute) {
+                return prefixed ? null : new XmlName("", localName);
+            }
+            return new XmlName(null, localName);
+        }
+
+        boolean matches(final String namespaceUri, final String localName) {
+            if (!this.localName.equals(localName)) {
+                return false;
+            }
+            return this.namespaceUri == null || this.namespaceUri.equals(namespaceUri == null ? "" : namespaceUri);
+        }
+    }
+}
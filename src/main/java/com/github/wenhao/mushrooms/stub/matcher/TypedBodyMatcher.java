@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+
+/**
+ * Body matcher whose applicability depends only on the request's {@link MediaKind} and the stub's
+ * {@link BodyKind}, so {@link BodyMatcher} can pick it from a table built once.
+ */
+public interface TypedBodyMatcher extends RequestBodyMatcher {
+
+    boolean isApplicable(MediaKind mediaKind);
+
+    boolean isApplicable(BodyKind bodyKind);
+
+    /**
+     * Without a stub request only the real request's media kind decides, as it did before stubs were compiled.
+     */
+    @Override
+    default boolean isApplicable(final Request stubRequest, final Request realRequest) {
+        return isApplicable(ParsedBody.of(realRequest).getMediaKind()) &&
+                (stubRequest == null || isApplicable(CompiledRequest.of(stubRequest).getBodyKind()));
+    }
+}
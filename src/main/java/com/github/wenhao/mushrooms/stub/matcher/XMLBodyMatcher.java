@@ -23,27 +23,23 @@
 package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Request;
-import org.json.JSONException;
-import org.json.XML;
-import org.skyscreamer.jsonassert.JSONCompare;
+import org.json.JSONObject;
 
-import static org.skyscreamer.jsonassert.JSONCompareMode.LENIENT;
+public class XMLBodyMatcher implements TypedBodyMatcher {
 
-public class XMLBodyMatcher implements RequestBodyMatcher {
+    @Override
+    public boolean isApplicable(final MediaKind mediaKind) {
+        return mediaKind.isXml();
+    }
 
     @Override
-    public boolean isApplicable(final Request stubRequest, final Request realRequest) {
-        return realRequest.getContentType().contains("xml") && !stubRequest.getBody().startsWith("xpath:");
+    public boolean isApplicable(final BodyKind bodyKind) {
+        return bodyKind == BodyKind.DOCUMENT;
     }
 
     @Override
     public boolean match(final Request stubRequest, final Request realRequest) {
-        try {
-            String stubBodyJson = XML.toJSONObject(stubRequest.getBody()).toString();
-            String realBodyJson = XML.toJSONObject(realRequest.getBody()).toString();
-            return JSONCompare.compareJSON(stubBodyJson, realBodyJson, LENIENT).passed();
-        } catch (JSONException e) {
-            return false;
-        }
+        final JSONObject stubBodyJson = CompiledRequest.of(stubRequest).getBodyExpectation().getXmlAsJson();
+        return stubBodyJson != null && XmlStreamMatcher.matches(stubBodyJson, realRequest.getBody());
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.json.XML;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.ENTITY_REFERENCE;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Matches a real XML body against the {@link XML#toJSONObject(String)} tree of a stub body while
+ * reading it with StAX. Elements the expectation describes as objects are streamed, elements it does
+ * not mention are skipped unread and the first mismatch ends the read; other elements are read into
+ * the tree org.json would have built, CDATA untrimmed and untyped, and handed to {@link LenientJsonComparator}.
+ */
+public final class XmlStreamMatcher {
+
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+    private static final String CONTENT = "content";
+    private static final String XMLNS = "xmlns";
+
+    private XmlStreamMatcher() {
+    }
+
+    public static boolean matches(final JSONObject expected, final String body) {
+        try {
+            final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(body));
+            try {
+                return matchesDocument(expected, reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean matchesDocument(final JSONObject expected, final XMLStreamReader reader) throws XMLStreamException {
+        int event = reader.next();
+        while (event != START_ELEMENT) {
+            event = reader.next();
+        }
+        final String name = name(reader.getPrefix(), reader.getLocalName());
+        if (!expected.has(name)) {
+            return expected.length() == 0;
+        }
+        if (expected.opt(name) instanceof JSONObject) {
+            return expected.length() == 1 && matchesElement(expected.getJSONObject(name), reader);
+        }
+        final JSONObject actual = new JSONObject();
+        actual.accumulate(name, read(reader));
+        return LenientJsonComparator.matchesObject(expected, actual);
+    }
+
+    private static boolean matchesElement(final JSONObject expected, final XMLStreamReader reader) throws XMLStreamException {
+        final JSONObject actual = attributes(reader);
+        final Set<String> streamed = new HashSet<>();
+        final boolean matched = readContent(actual, reader, name -> {
+            final Object expectedChild = expected.opt(name);
+            if (expectedChild instanceof JSONObject) {
+                return !actual.has(name) && streamed.add(name) && matchesElement((JSONObject) expectedChild, reader);
+            }
+            if (expectedChild == null) {
+                skip(reader);
+            } else {
+                actual.accumulate(name, read(reader));
+            }
+            return true;
+        });
+        return matched && expected.keySet().stream().allMatch(key -> streamed.contains(key) || matchesValue(expected.get(key), actual.opt(key)));
+    }
+
+    private static boolean matchesValue(final Object expected, final Object actual) {
+        return !(expected instanceof JSONObject) && actual != null && LenientJsonComparator.matches(expected, actual);
+    }
+
+    /**
+     * Reads the element the reader is on the way {@code XML.toJSONObject} converts it: empty elements
+     * become {@code ""} and elements holding text only collapse to their content.
+     */
+    private static Object read(final XMLStreamReader reader) throws XMLStreamException {
+        final JSONObject element = attributes(reader);
+        readContent(element, reader, name -> {
+            element.accumulate(name, read(reader));
+            return true;
+        });
+        if (element.length() == 0) {
+            return "";
+        }
+        return element.length() == 1 && element.has(CONTENT) ? element.get(CONTENT) : element;
+    }
+
+    /**
+     * Reads the current element up to its end tag, adding its text to {@code element} the way org.json
+     * does and handing child elements to {@code handler} until one of them returns {@code false}.
+     */
+    private static boolean readContent(final JSONObject element, final XMLStreamReader reader, final ChildHandler handler) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int event = reader.next();
+        while (event != END_ELEMENT) {
+            if (isText(event)) {
+                text.append(reader.getText());
+            } else {
+                addText(element, text);
+                if (event == CDATA && reader.getTextLength() > 0) {
+                    element.accumulate(CONTENT, reader.getText());
+                } else if (event == START_ELEMENT && !handler.read(name(reader.getPrefix(), reader.getLocalName()))) {
+                    return false;
+                }
+            }
+            event = reader.next();
+        }
+        addText(element, text);
+        return true;
+    }
+
+    private static boolean isText(final int event) {
+        return event == CHARACTERS || event == SPACE || event == ENTITY_REFERENCE;
+    }
+
+    private static void addText(final JSONObject element, final StringBuilder text) {
+        final String content = text.toString().trim();
+        text.setLength(0);
+        if (!content.isEmpty()) {
+            element.accumulate(CONTENT, XML.stringToValue(content));
+        }
+    }
+
+    private static JSONObject attributes(final XMLStreamReader reader) {
+        final JSONObject element = new JSONObject();
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String name = StringUtils.isEmpty(reader.getNamespacePrefix(i)) ? XMLNS : name(XMLNS, reader.getNamespacePrefix(i));
+            element.accumulate(name, XML.stringToValue(StringUtils.defaultString(reader.getNamespaceURI(i))));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String name = name(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+            element.accumulate(name, XML.stringToValue(reader.getAttributeValue(i)));
+        }
+        return element;
+    }
+
+    private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            depth += (event == START_ELEMENT ? 1 : 0) - (event == END_ELEMENT ? 1 : 0);
+        }
+    }
+
+    private static String name(final String prefix, final String localName) {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + ":" + localName;
+    }
+
+    private static XMLInputFactory inputFactory() {
+        final XMLInputFactory factory = XmlInputFactories.untrusted();
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            factory.setProperty(REPORT_CDATA, true);
+        }
+        return factory;
+    }
+
+    @FunctionalInterface
+    private interface ChildHandler {
+        boolean read(String name) throws XMLStreamException;
+    }
+}
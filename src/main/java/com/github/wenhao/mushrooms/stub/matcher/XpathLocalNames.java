@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites every element name test of an XPath into {@code *[local-name()='name']}, so a stub
+ * written without namespaces matches a namespace-aware document whatever prefixes the request uses.
+ * Tokens follow the XPath 1.0 lexical rules: names before {@code (} or {@code ::}, operator names,
+ * variables and attribute names are left alone. An expression that does not tokenize is returned as is.
+ */
+public final class XpathLocalNames {
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "(\\s+)|(\"[^\"]*\"|'[^']*'|\\d+(?:\\.\\d*)?|\\.\\d+)|(//|::|\\.\\.|!=|<=|>=|[/()\\[\\]@,|+\\-=<>*.$])"
+                    + "|([A-Za-z_][\\w.\\-]*(?::(?:[A-Za-z_][\\w.\\-]*|\\*))?)");
+    private static final Pattern OPERAND_CLOSER = Pattern.compile("\\)|]|\\.|\\.\\.");
+    private static final Pattern NON_ELEMENT_AXIS = Pattern.compile("attribute|namespace");
+    private static final int SPACE = 1;
+    private static final int VALUE = 2;
+    private static final int SYMBOL = 3;
+
+    private final String xpath;
+    private final StringBuilder rewritten = new StringBuilder();
+    private boolean expectOperand = true;
+    private boolean skipNextName;
+
+    private XpathLocalNames(final String xpath) {
+        this.xpath = xpath;
+    }
+
+    public static String rewrite(final String xpath) {
+        return new XpathLocalNames(xpath).rewrite();
+    }
+
+    private String rewrite() {
+        final Matcher matcher = TOKEN.matcher(xpath);
+        for (int start = 0; start < xpath.length(); start = matcher.end()) {
+            if (!matcher.region(start, xpath.length()).lookingAt()) {
+                return xpath;
+            }
+            append(matcher);
+        }
+        return rewritten.toString();
+    }
+
+    private void append(final Matcher token) {
+        if (token.group(SPACE) != null) {
+            rewritten.append(token.group());
+        } else if (token.group(VALUE) != null) {
+            rewritten.append(token.group());
+            expectOperand = false;
+        } else if (token.group(SYMBOL) != null) {
+            appendSymbol(token.group());
+        } else {
+            appendName(token.group(), token.end());
+        }
+    }
+
+    private void appendSymbol(final String symbol) {
+        rewritten.append(symbol);
+        if ("*".equals(symbol)) {
+            skipNextName = false;
+            expectOperand = !expectOperand;
+        } else {
+            skipNextName = "@".equals(symbol) || "$".equals(symbol) || skipNextName && "::".equals(symbol);
+            expectOperand = !OPERAND_CLOSER.matcher(symbol).matches();
+        }
+    }
+
+    private void appendName(final String name, final int end) {
+        final String following = xpath.substring(end).trim();
+        if (!expectOperand || following.startsWith("(") || following.startsWith("::")) {
+            rewritten.append(name);
+            skipNextName = following.startsWith("::") && NON_ELEMENT_AXIS.matcher(name).matches();
+            expectOperand = true;
+            return;
+        }
+        rewritten.append(skipNextName ? name : localNameTest(name));
+        skipNextName = false;
+        expectOperand = false;
+    }
+
+    private static String localNameTest(final String name) {
+        final String localName = name.substring(name.indexOf(':') + 1);
+        return "*".equals(localName) ? localName : "*[local-name()='" + localName + "']";
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.domain.Header;
+import com.github.wenhao.mushrooms.stub.domain.Parameter;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.matcher.JsonPathProvider;
+import com.github.wenhao.mushrooms.stub.matcher.ParsedBody;
+import com.github.wenhao.mushrooms.stub.matcher.ParsedRequest;
+import static java.util.stream.Collectors.toList;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.ByteString;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Request view over an okhttp request that reads path, headers, parameters and body only when a
+ * matcher first asks for them, and keeps each result for the rest of the request. The body is
+ * written out once; {@link #forwardable()} replays those bytes instead of writing it again, and
+ * the body matchers share one {@link ParsedBody} of it.
+ */
+public class LazyRequest extends Request implements ParsedRequest {
+
+    private static final long serialVersionUID = 1L;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final okhttp3.Request request;
+    private final JsonPathProvider jsonPathProvider;
+    private Buffer bodyBuffer;
+    private ParsedBody parsedBody;
+    private Map<String, List<String>> queryParameters;
+
+    public LazyRequest(final okhttp3.Request request) {
+        this(request, JsonPathProvider.JSON_SMART);
+    }
+
+    public LazyRequest(final okhttp3.Request request, final JsonPathProvider jsonPathProvider) {
+        this.request = request;
+        this.jsonPathProvider = jsonPathProvider;
+        setMethod(request.method());
+    }
+
+    @Override
+    public String getPath() {
+        if (super.getPath() == null) {
+            setPath(substringBefore(request.url().toString(), "?"));
+        }
+        return super.getPath();
+    }
+
+    @Override
+    public List<Header> getHeaders() {
+        if (super.getHeaders() == null) {
+            setHeaders(request.headers().names().stream()
+                    .map(name -> Header.builder().name(name).value(request.headers().get(name)).build())
+                    .collect(toList()));
+        }
+        return super.getHeaders();
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        if (super.getParameters() == null) {
+            setParameters(getQueryParameters().entrySet().stream()
+                    .flatMap(parameter -> parameter.getValue().stream().map(value -> new Parameter(parameter.getKey(), value)))
+                    .collect(toList()));
+        }
+        return super.getParameters();
+    }
+
+    /**
+     * Decoded query parameters by name, in the order their names first appear; a name without a value maps to {@code ""}.
+     */
+    @Override
+    public Map<String, List<String>> getQueryParameters() {
+        if (queryParameters == null) {
+            final HttpUrl url = request.url();
+            queryParameters = new LinkedHashMap<>();
+            for (int i = 0; i < url.querySize(); i++) {
+                queryParameters.computeIfAbsent(url.queryParameterName(i), name -> new ArrayList<>())
+                        .add(Optional.ofNullable(url.queryParameterValue(i)).orElse(""));
+            }
+        }
+        return queryParameters;
+    }
+
+    @Override
+    public String getBody() {
+        if (super.getBody() == null) {
+            setBody(Optional.ofNullable(bodyBuffer()).map(this::decode).orElse(""));
+        }
+        return super.getBody();
+    }
+
+    @Override
+    public String getContentType() {
+        if (super.getContentType() == null) {
+            setContentType(Optional.ofNullable(request.body()).map(RequestBody::contentType).map(MediaType::toString).orElse(""));
+        }
+        return super.getContentType();
+    }
+
+    @Override
+    public ParsedBody getParsedBody() {
+        if (parsedBody == null) {
+            parsedBody = new ParsedBody(this, jsonPathProvider);
+        }
+        return parsedBody;
+    }
+
+    public HttpUrl getUrl() {
+        return request.url();
+    }
+
+    @Override
+    public Headers getOkHttpHeaders() {
+        return request.headers();
+    }
+
+    /**
+     * SHA-256 of the body bytes, read through the same buffer the matchers and forwarding use.
+     */
+    public ByteString bodyHash() {
+        return Optional.ofNullable(bodyBuffer()).map(Buffer::sha256).orElse(ByteString.EMPTY);
+    }
+
+    public boolean hasBody() {
+        return request.body() != null;
+    }
+
+    /**
+     * Request to send on, carrying the buffered body when it has already been read.
+     */
+    public okhttp3.Request forwardable() {
+        if (bodyBuffer == null) {
+            return request;
+        }
+        return request.newBuilder()
+                .method(request.method(), new ReplayableRequestBody(request.body().contentType(), bodyBuffer))
+                .build();
+    }
+
+    private Buffer bodyBuffer() {
+        if (bodyBuffer == null && request.body() != null) {
+            final Buffer buffer = new Buffer();
+            try {
+                request.body().writeTo(buffer);
+                bodyBuffer = buffer;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return bodyBuffer;
+    }
+
+    private String decode(final Buffer buffer) {
+        final Charset charset = Optional.ofNullable(request.body().contentType()).map(contentType -> contentType.charset(UTF8)).orElse(UTF8);
+        return buffer.clone().readString(charset);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.config.CompiledStub;
+import com.github.wenhao.mushrooms.stub.config.MatchPlan;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.matcher.RequestMatcher;
+import static java.util.Comparator.comparingDouble;
+import static java.util.stream.Collectors.toList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Request matchers run cheapest first by {@link RequestMatcher#cost()}. When adaptive, the matchers
+ * count how often they run and reject, and every {@value #RERANK_INTERVAL} stub evaluations they are
+ * re-ranked by cost per observed rejection, so cheap matchers that reject most stubs move to the
+ * front. A stub matches only when every matcher accepts it, so the order never changes the result.
+ * Otherwise the order is fixed, and each stub of a plan is compiled once into a single predicate
+ * chaining, cheapest first, only the checks its criteria need (see {@link RequestMatcher#compile}).
+ */
+final class MatcherPipeline {
+
+    private static final int RERANK_INTERVAL = 1024;
+
+    private final List<RequestMatcher> matchers;
+    private final BooleanSupplier adaptive;
+    private final AtomicLongArray runs;
+    private final AtomicLongArray rejections;
+    private final AtomicLong evaluations = new AtomicLong();
+    private volatile int[] order;
+    private volatile CompiledPlan compiled;
+
+    /**
+     * Whether the pipeline is adaptive is asked on every evaluation, so it can be switched on a live configuration.
+     */
+    MatcherPipeline(final List<RequestMatcher> matchers, final BooleanSupplier adaptive) {
+        this.matchers = matchers;
+        this.adaptive = adaptive;
+        this.runs = new AtomicLongArray(matchers.size());
+        this.rejections = new AtomicLongArray(matchers.size());
+        this.order = rank(index -> matchers.get(index).cost());
+    }
+
+    boolean matches(final MatchPlan plan, final CompiledStub stub, final Request realRequest) {
+        if (!adaptive.getAsBoolean()) {
+            return compiled(plan).predicates.get(stub.getOrder()).test(realRequest);
+        }
+        if (evaluations.incrementAndGet() % RERANK_INTERVAL == 0) {
+            order = rank(this::costPerRejection);
+        }
+        for (final int index : order) {
+            final boolean matched = matchers.get(index).match(stub.getRequest(), realRequest);
+            record(index, matched);
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompiledPlan compiled(final MatchPlan plan) {
+        final CompiledPlan current = compiled;
+        if (current != null && current.plan == plan) {
+            return current;
+        }
+        final CompiledPlan recompiled = new CompiledPlan(plan, plan.getStubs().stream().map(this::compile).collect(toList()));
+        compiled = recompiled;
+        return recompiled;
+    }
+
+    private Predicate<Request> compile(final CompiledStub stub) {
+        return Arrays.stream(order)
+                .mapToObj(index -> matchers.get(index).compile(stub.getRequest()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .reduce(Predicate::and)
+                .orElse(realRequest -> true);
+    }
+
+    private void record(final int index, final boolean matched) {
+        runs.incrementAndGet(index);
+        if (!matched) {
+            rejections.incrementAndGet(index);
+        }
+    }
+
+    /**
+     * Expected cost spent per stub the matcher rejects, with the rejection rate smoothed so matchers
+     * that never ran or never rejected still rank by cost.
+     */
+    private double costPerRejection(final int index) {
+        final double rejectionRate = (rejections.get(index) + 1.0) / (runs.get(index) + 2.0);
+        return matchers.get(index).cost() / rejectionRate;
+    }
+
+    private int[] rank(final IntToDoubleFunction score) {
+        return IntStream.range(0, matchers.size())
+                .boxed()
+                .sorted(comparingDouble(score::applyAsDouble))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static final class CompiledPlan {
+
+        private final MatchPlan plan;
+        private final List<Predicate<Request>> predicates;
+
+        private CompiledPlan(final MatchPlan plan, final List<Predicate<Request>> predicates) {
+            this.plan = plan;
+            this.predicates = predicates;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.config.CompiledStub;
+import com.github.wenhao.mushrooms.stub.config.MatchCache;
+import com.github.wenhao.mushrooms.stub.config.MatchPlan;
+import com.github.wenhao.mushrooms.stub.config.Origin;
+import com.github.wenhao.mushrooms.stub.config.StubConfiguration;
+import com.github.wenhao.mushrooms.stub.matcher.BodyMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.HeaderMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.MethodMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.ParameterMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.PathMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.RequestMatcher;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Finds the first stub of the configuration's {@link MatchPlan} matching a request, running the
+ * request matchers through a {@link MatcherPipeline}.
+ */
+public class StubFinder {
+
+    private static final MethodMatcher METHOD_MATCHER = new MethodMatcher();
+    private static final List<Class<?>> BUILT_IN_MATCHERS = Arrays.asList(
+            PathMatcher.class, MethodMatcher.class, ParameterMatcher.class, HeaderMatcher.class, BodyMatcher.class);
+
+    private final StubConfiguration configuration;
+    private final MatcherPipeline requestMatchers;
+    private final MatcherPipeline bodylessMatchers;
+    private final boolean partitioned;
+    private final boolean bodyMatched;
+    private final boolean builtInOnly;
+
+    /**
+     * With the built-in method and path matchers, candidates come from the plan's partitions, which
+     * already checked the path, so the path matcher is left out of the pipelines.
+     */
+    public StubFinder(final StubConfiguration configuration, final List<RequestMatcher> requestMatchers) {
+        this.configuration = configuration;
+        this.partitioned = contains(requestMatchers, PathMatcher.class) && contains(requestMatchers, MethodMatcher.class);
+        final List<RequestMatcher> unpartitioned = partitioned ? requestMatchers.stream()
+                .filter(matcher -> matcher.getClass() != PathMatcher.class)
+                .collect(toList()) : requestMatchers;
+        this.bodyMatched = contains(requestMatchers, BodyMatcher.class);
+        this.builtInOnly = requestMatchers.stream().allMatch(matcher -> BUILT_IN_MATCHERS.contains(matcher.getClass()));
+        this.requestMatchers = new MatcherPipeline(unpartitioned, configuration::isAdaptiveMatcherOrder);
+        this.bodylessMatchers = new MatcherPipeline(unpartitioned.stream()
+                .filter(matcher -> matcher.getClass() != BodyMatcher.class)
+                .collect(toList()), configuration::isAdaptiveMatcherOrder);
+    }
+
+    /**
+     * Method and path pairs that no partitioned stub accepts are answered from the plan's negative
+     * cache. With a match cache, results are cached by request fingerprint, which includes headers only
+     * when a stub declares headers or a custom matcher could read them.
+     */
+    public Optional<CompiledStub> find(final LazyRequest realRequest) {
+        final MatchPlan plan = configuration.getPlan();
+        if (partitioned && plan.getMisses().contains(realRequest.getMethod(), realRequest.getPath())) {
+            return Optional.empty();
+        }
+        final Optional<MatchCache> matchCache = plan.getMatchCache();
+        if (!matchCache.isPresent()) {
+            return find(plan, realRequest);
+        }
+        final RequestFingerprint fingerprint = RequestFingerprint.of(realRequest, plan.isHeaderDeclared() || !builtInOnly);
+        return matchCache.get().computeIfAbsent(fingerprint, () -> find(plan, realRequest));
+    }
+
+    private Optional<CompiledStub> find(final MatchPlan plan, final LazyRequest realRequest) {
+        if (!partitioned) {
+            return match(plan, plan.getStubs(), realRequest);
+        }
+        final List<CompiledStub> candidates = plan.getPartitions()
+                .candidates(realRequest.getMethod(), Origin.of(realRequest.getUrl()), realRequest.getPath());
+        final Optional<CompiledStub> matched = match(plan, candidates, realRequest);
+        if (!matched.isPresent() && candidates.stream().noneMatch(stub -> METHOD_MATCHER.match(stub.getRequest(), realRequest))) {
+            plan.getMisses().add(realRequest.getMethod(), realRequest.getPath());
+        }
+        return matched;
+    }
+
+    /**
+     * Requests without a body skip the body matcher and every stub declaring a body. With strict
+     * bodies, stubs with a canonical body are kept only when the request's canonical body looks them
+     * up, and the body matcher is not run for them.
+     */
+    private Optional<CompiledStub> match(final MatchPlan plan, final List<CompiledStub> candidates, final LazyRequest realRequest) {
+        if (!bodyMatched) {
+            return first(plan, candidates.stream(), requestMatchers, realRequest);
+        }
+        if (!realRequest.hasBody()) {
+            return first(plan, candidates.stream().filter(stub -> !stub.isBodyDeclared()), bodylessMatchers, realRequest);
+        }
+        if (!plan.isStrictBody()) {
+            return first(plan, candidates.stream(), requestMatchers, realRequest);
+        }
+        final Set<CompiledStub> exact = plan.exactBodyStubs(realRequest.getParsedBody().getCanonicalBody());
+        return candidates.stream()
+                .filter(stub -> stub.getCanonicalBody() == null ?
+                        requestMatchers.matches(plan, stub, realRequest)
+                        : exact.contains(stub) && bodylessMatchers.matches(plan, stub, realRequest))
+                .findFirst();
+    }
+
+    private static Optional<CompiledStub> first(final MatchPlan plan, final Stream<CompiledStub> candidates,
+                                                final MatcherPipeline matchers, final LazyRequest realRequest) {
+        return candidates
+                .filter(stub -> matchers.matches(plan, stub, realRequest))
+                .findFirst();
+    }
+
+    private static boolean contains(final List<RequestMatcher> requestMatchers, final Class<? extends RequestMatcher> type) {
+        return requestMatchers.stream().anyMatch(matcher -> matcher.getClass() == type);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.config.CompiledStub;
+import okhttp3.MediaType;
+import static okhttp3.Protocol.HTTP_1_1;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ByteString;
+
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * Builds stub and error responses in the content type of the request body. Requests without a body
+ * get responses without a content type.
+ */
+public class StubResponseFactory {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public Response stubResponse(final Request request, final CompiledStub stub) {
+        final Optional<MediaType> contentType = contentType(request);
+        final Response.Builder response = new Response.Builder()
+                .code(200)
+                .request(request)
+                .message("[MUSHROOMS]Respond with stub data")
+                .protocol(HTTP_1_1)
+                .body(getResponseBody(contentType.orElse(null), stub));
+        contentType.ifPresent(mediaType -> response.addHeader("Content-Type", mediaType.toString()));
+        return response.build();
+    }
+
+    public Response errorResponse(final Request request, final Exception e) {
+        return new Response.Builder()
+                .code(500)
+                .request(request)
+                .message(e.getMessage())
+                .protocol(HTTP_1_1)
+                .body(ResponseBody.create(contentType(request).orElse(null), e.getMessage()))
+                .build();
+    }
+
+    private Optional<MediaType> contentType(final Request request) {
+        return Optional.ofNullable(request.body()).map(RequestBody::contentType);
+    }
+
+    private ResponseBody getResponseBody(final MediaType contentType, final CompiledStub stub) {
+        final Charset charset = contentType == null ? UTF8 : contentType.charset();
+        if (charset != null && !UTF8.equals(charset)) {
+            return ResponseBody.create(contentType, stub.getStub().getResponse());
+        }
+        final MediaType mediaType = contentType != null && charset == null ? MediaType.parse(contentType + "; charset=utf-8") : contentType;
+        final ByteString body = stub.getResponse();
+        return ResponseBody.create(mediaType, body.size(), new Buffer().write(body));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchCacheTest {
+
+    private final CompiledStub stub = CompiledStub.compile(0, Stub.builder()
+            .request(Request.builder().path("http://localhost/books").build())
+            .build(), false);
+
+    @Test
+    void should_run_matcher_once_per_fingerprint() {
+        // given
+        final MatchCache matchCache = new MatchCache(10, Duration.ofMinutes(1));
+        final AtomicInteger runs = new AtomicInteger();
+
+        // when
+        final Optional<CompiledStub> first = matchCache.computeIfAbsent("books", () -> count(runs, Optional.of(stub)));
+        final Optional<CompiledStub> second = matchCache.computeIfAbsent("books", () -> count(runs, Optional.empty()));
+
+        // then
+        assertThat(first).containsSame(stub);
+        assertThat(second).containsSame(stub);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(matchCache.getHits()).isEqualTo(1);
+        assertThat(matchCache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void should_cache_result_without_match() {
+        // given
+        final MatchCache matchCache = new MatchCache(10, Duration.ofMinutes(1));
+        final AtomicInteger runs = new AtomicInteger();
+
+        // when
+        matchCache.computeIfAbsent("authors", () -> count(runs, Optional.empty()));
+        final Optional<CompiledStub> cached = matchCache.computeIfAbsent("authors", () -> count(runs, Optional.of(stub)));
+
+        // then
+        assertThat(cached).isEmpty();
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void should_run_matcher_again_once_entry_expired() {
+        // given
+        final MatchCache matchCache = new MatchCache(10, Duration.ZERO);
+        final AtomicInteger runs = new AtomicInteger();
+        matchCache.computeIfAbsent("books", () -> count(runs, Optional.empty()));
+
+        // when
+        final Optional<CompiledStub> recomputed = matchCache.computeIfAbsent("books", () -> count(runs, Optional.of(stub)));
+
+        // then
+        assertThat(recomputed).containsSame(stub);
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(matchCache.getHits()).isZero();
+        assertThat(matchCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_evict_least_recently_used_fingerprint() {
+        // given
+        final MatchCache matchCache = new MatchCache(2, Duration.ofMinutes(1));
+        final AtomicInteger runs = new AtomicInteger();
+        matchCache.computeIfAbsent("books", () -> count(runs, Optional.of(stub)));
+        matchCache.computeIfAbsent("authors", () -> count(runs, Optional.empty()));
+        matchCache.computeIfAbsent("books", () -> count(runs, Optional.of(stub)));
+
+        // when
+        matchCache.computeIfAbsent("publishers", () -> count(runs, Optional.empty()));
+        matchCache.computeIfAbsent("books", () -> count(runs, Optional.of(stub)));
+        matchCache.computeIfAbsent("authors", () -> count(runs, Optional.empty()));
+
+        // then
+        assertThat(matchCache.size()).isEqualTo(2);
+        assertThat(runs.get()).isEqualTo(4);
+    }
+
+    private static Optional<CompiledStub> count(final AtomicInteger runs, final Optional<CompiledStub> result) {
+        runs.incrementAndGet();
+        return result;
+    }
+}
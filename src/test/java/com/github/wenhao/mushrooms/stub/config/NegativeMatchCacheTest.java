@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NegativeMatchCacheTest {
+
+    @Test
+    void should_contain_added_method_and_path() {
+        // given
+        final NegativeMatchCache misses = new NegativeMatchCache(10);
+
+        // when
+        misses.add("GET", "http://localhost/books");
+
+        // then
+        assertThat(misses.contains("GET", "http://localhost/books")).isTrue();
+        assertThat(misses.contains("POST", "http://localhost/books")).isFalse();
+        assertThat(misses.contains("GET", "http://localhost/authors")).isFalse();
+    }
+
+    @Test
+    void should_start_over_once_full() {
+        // given
+        final NegativeMatchCache misses = new NegativeMatchCache(2);
+        misses.add("GET", "http://localhost/books");
+        misses.add("GET", "http://localhost/authors");
+
+        // when
+        misses.add("GET", "http://localhost/publishers");
+
+        // then
+        assertThat(misses.contains("GET", "http://localhost/books")).isFalse();
+        assertThat(misses.contains("GET", "http://localhost/authors")).isFalse();
+        assertThat(misses.contains("GET", "http://localhost/publishers")).isTrue();
+    }
+}
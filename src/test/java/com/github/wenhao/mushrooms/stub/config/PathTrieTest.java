@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathTrieTest {
+
+    @Test
+    void should_collect_matching_regex_stubs_in_order() {
+        // given
+        final PathTrie trie = new PathTrie();
+        trie.add("http://localhost/books/", stub(0, "http://localhost/books/[0-9]+"));
+        trie.add("http://localhost/books/", stub(1, "http://localhost/books/[a-z]+"));
+        trie.add("http://localhost/books/", stub(2, "http://localhost/books/1[0-9]*"));
+        trie.add("http://localhost/authors/", stub(3, "http://localhost/authors/[0-9]+"));
+        trie.compile();
+
+        // when
+        final List<Integer> orders = collect(trie, "http://localhost/books/12");
+
+        // then
+        assertThat(orders).containsExactly(0, 2);
+    }
+
+    @Test
+    void should_collect_regex_stubs_in_order_across_pattern_chunks() {
+        // given
+        final PathTrie trie = new PathTrie();
+        IntStream.range(0, 300).forEach(order -> trie.add("http://localhost/books/", stub(order, "http://localhost/books/[0-9]+(/" + order + ")?")));
+        trie.compile();
+
+        // when
+        final List<Integer> orders = collect(trie, "http://localhost/books/1");
+
+        // then
+        assertThat(orders).isEqualTo(IntStream.range(0, 300).boxed().collect(toList()));
+    }
+
+    @Test
+    void should_follow_any_character_edge() {
+        // given
+        final PathTrie trie = new PathTrie();
+        trie.add("http://api.example/", stub(0, "http://api.example/(.*)"));
+        trie.compile();
+
+        // when
+        final List<Integer> dotted = collect(trie, "http://api.example/books");
+        final List<Integer> other = collect(trie, "http://apixexample/books");
+        final List<Integer> missing = collect(trie, "http://api.other/books");
+
+        // then
+        assertThat(dotted).containsExactly(0);
+        assertThat(other).containsExactly(0);
+        assertThat(missing).isEmpty();
+    }
+
+    private static List<Integer> collect(final PathTrie trie, final String path) {
+        final List<CompiledStub> candidates = new ArrayList<>();
+        trie.collect(path, candidates);
+        return candidates.stream().map(CompiledStub::getOrder).collect(toList());
+    }
+
+    private static CompiledStub stub(final int order, final String path) {
+        return CompiledStub.compile(order, Stub.builder().request(Request.builder().path(path).method("GET").build()).build(), false);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubIndexTest {
+
+    private final StubIndex index = new StubIndex(Arrays.asList(
+            stub(0, "http://localhost/books/1"),
+            stub(1, "http://localhost/books/(.*)"),
+            stub(2, "(.*)/books/1"),
+            stub(3, "http://localhost/authors/(.*)"),
+            stub(4, "http://localhost/books/[0-9]+")));
+
+    @Test
+    void should_collect_exact_prefix_and_fallback_stubs_matching_path() {
+        // when
+        final List<Integer> orders = collect("http://localhost/books/1");
+
+        // then
+        assertThat(orders).containsExactlyInAnyOrder(0, 1, 2, 4);
+    }
+
+    @Test
+    void should_not_collect_stubs_not_matching_path() {
+        // when
+        final List<Integer> orders = collect("http://localhost/books/abc");
+
+        // then
+        assertThat(orders).containsExactly(1);
+    }
+
+    private List<Integer> collect(final String path) {
+        final List<CompiledStub> candidates = new ArrayList<>();
+        index.collect(path, candidates);
+        return candidates.stream().map(CompiledStub::getOrder).collect(toList());
+    }
+
+    private static CompiledStub stub(final int order, final String path) {
+        return CompiledStub.compile(order, Stub.builder().request(Request.builder().path(path).method("GET").build()).build(), false);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.config;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubPartitionsTest {
+
+    private static final String BOOK = "http://localhost/books/1";
+
+    private final StubPartitions partitions = new StubPartitions(Arrays.asList(
+            stub(0, "(.*)/books/1", "GET"),
+            stub(1, "http://localhost/books/(.*)", "G.*"),
+            stub(2, "http://other/books/1", "GET"),
+            stub(3, BOOK, "POST"),
+            stub(4, BOOK, "GET"),
+            stub(5, "http://localhost/books/[0-9]+", "GET")));
+
+    @Test
+    void should_return_candidates_of_method_and_origin_in_stub_order() {
+        // when
+        final List<Integer> orders = candidates("GET", Origin.of(HttpUrl.parse(BOOK)));
+
+        // then
+        assertThat(orders).containsExactly(0, 1, 4, 5);
+    }
+
+    @Test
+    void should_look_at_every_origin_without_request_origin() {
+        // when
+        final List<Integer> orders = candidates("POST", Optional.empty());
+
+        // then
+        assertThat(orders).containsExactly(1, 3);
+    }
+
+    private List<Integer> candidates(final String method, final Optional<Origin> origin) {
+        return partitions.candidates(method, origin, BOOK).stream().map(CompiledStub::getOrder).collect(toList());
+    }
+
+    private static CompiledStub stub(final int order, final String path, final String method) {
+        return CompiledStub.compile(order, Stub.builder().request(Request.builder().path(path).method(method).build()).build(), false);
+    }
+}
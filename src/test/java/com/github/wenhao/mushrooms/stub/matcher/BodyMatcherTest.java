@@ -27,6 +27,9 @@ import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class BodyMatcherTest {
@@ -106,4 +109,84 @@ class BodyMatcherTest {
         assertThat(isMatch).isTrue();
 
     }
+
+    @Test
+    void should_dispatch_by_media_and_body_kind() {
+        // given
+        final BodyMatcher typed = new BodyMatcher(ImmutableList.of(new JsonBodyMatcher(), new JsonPathMatcher(), new XMLBodyMatcher(),
+                new XpathBodyMatcher()));
+        final Request jsonPath = Request.builder().body("jsonPath:$.books[?(@.id == 1)]").build();
+        final Request xpath = Request.builder().body("xpath:/books/book[id='1']").build();
+        final Request problem = Request.builder().body("{\"books\":[{\"id\":1}]}").contentType("application/problem+json").build();
+        final Request soap = Request.builder().body("<books><book><id>1</id></book></books>").contentType("application/soap+xml").build();
+
+        // when
+        final boolean jsonPathMatched = typed.match(jsonPath, problem);
+        final boolean xpathMatched = typed.match(xpath, soap);
+        final boolean crossMatched = typed.match(jsonPath, soap);
+
+        // then
+        assertThat(jsonPathMatched).isTrue();
+        assertThat(xpathMatched).isTrue();
+        assertThat(crossMatched).isFalse();
+    }
+
+    @Test
+    void should_ask_untyped_body_matcher_per_request() {
+        // given
+        final RequestBodyMatcher any = new RequestBodyMatcher() {
+            @Override
+            public boolean isApplicable(final Request stubRequest, final Request realRequest) {
+                return "text/plain".equals(realRequest.getContentType());
+            }
+
+            @Override
+            public boolean match(final Request stubRequest, final Request realRequest) {
+                return stubRequest.getBody().equals(realRequest.getBody());
+            }
+        };
+        final BodyMatcher untyped = new BodyMatcher(ImmutableList.of(new JsonBodyMatcher(), any));
+        final Request stub = Request.builder().body("name=Tom").build();
+
+        // when
+        final boolean matched = untyped.match(stub, Request.builder().body("name=Tom").contentType("text/plain").build());
+        final boolean notApplicable = untyped.match(stub, Request.builder().body("name=Tom").contentType("text/csv").build());
+
+        // then
+        assertThat(matched).isTrue();
+        assertThat(notApplicable).isFalse();
+    }
+
+    @Test
+    void should_compile_body_matcher_for_stub_body_kind() {
+        // given
+        final Request jsonPath = Request.builder().body("jsonPath:$.books[?(@.id == 1)]").build();
+        final BodyMatcher typed = new BodyMatcher(ImmutableList.of(new JsonBodyMatcher(), new JsonPathMatcher(), new XMLBodyMatcher()));
+        final RequestBodyMatcher any = new RequestBodyMatcher() {
+            @Override
+            public boolean isApplicable(final Request stubRequest, final Request realRequest) {
+                return true;
+            }
+
+            @Override
+            public boolean match(final Request stubRequest, final Request realRequest) {
+                return true;
+            }
+        };
+        final BodyMatcher untyped = new BodyMatcher(ImmutableList.of(any));
+
+        // when
+        final Optional<Predicate<Request>> compiled = typed.compile(jsonPath);
+        final Optional<Predicate<Request>> fallback = untyped.compile(jsonPath);
+        final Optional<Predicate<Request>> undeclared = typed.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder().body("{\"books\":[{\"id\":1}]}").contentType("application/json").build())).isTrue();
+            assertThat(predicate.test(Request.builder().body("<books/>").contentType("text/xml").build())).isFalse();
+        });
+        assertThat(fallback).hasValueSatisfying(predicate ->
+                assertThat(predicate.test(Request.builder().body("{\"books\":[{\"id\":1}]}").contentType("application/json").build())).isTrue());
+        assertThat(undeclared).isEmpty();
+    }
 }
\ No newline at end of file
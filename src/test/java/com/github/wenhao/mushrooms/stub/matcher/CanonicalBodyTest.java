@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanonicalBodyTest {
+
+    @Test
+    void should_sort_json_keys_and_drop_whitespace() {
+        // when
+        final String canonical = CanonicalBody.of("{ \"name\" : \"Tom\",\n \"id\" : 1, \"tags\": [ {\"b\": 2, \"a\": 1}, \"x\" ] }");
+        final String reordered = CanonicalBody.of("{\"id\":1,\"tags\":[{\"a\":1,\"b\":2},\"x\"],\"name\":\"Tom\"}");
+
+        // then
+        assertThat(canonical).isEqualTo("{\"id\":1,\"name\":\"Tom\",\"tags\":[{\"a\":1,\"b\":2},\"x\"]}");
+        assertThat(reordered).isEqualTo(canonical);
+    }
+
+    @Test
+    void should_keep_json_array_order_and_values() {
+        // when
+        final String canonical = CanonicalBody.of("[1, 2]");
+
+        // then
+        assertThat(canonical).isNotEqualTo(CanonicalBody.of("[2,1]"));
+        assertThat(CanonicalBody.of("{\"id\":1}")).isNotEqualTo(CanonicalBody.of("{\"id\":1.0}"));
+    }
+
+    @Test
+    void should_normalize_xml() {
+        // when
+        final String canonical = CanonicalBody.of("<?xml version=\"1.0\"?>\n<s:book xmlns:s=\"urn:s\" lang=\"en\" id=\"1\">\n"
+                + "  <!-- recorded -->\n  <s:title><![CDATA[Java & Go]]></s:title>\n</s:book>");
+        final String reprefixed = CanonicalBody.of("<b:book xmlns:b=\"urn:s\" id=\"1\" lang=\"en\"><b:title>Java &amp; Go</b:title></b:book>");
+
+        // then
+        assertThat(canonical).isEqualTo("<{urn:s}book id=\"1\" lang=\"en\"><{urn:s}title>Java &amp; Go</></>");
+        assertThat(reprefixed).isEqualTo(canonical);
+        assertThat(CanonicalBody.of("<book><title>Go</title></book>")).isNotEqualTo(canonical);
+    }
+
+    @Test
+    void should_keep_other_or_invalid_body() {
+        // when
+        final String text = CanonicalBody.of(" name=Tom ");
+        final String json = CanonicalBody.of("{\"name\":");
+        final String xml = CanonicalBody.of("<book><title></book>");
+
+        // then
+        assertThat(text).isEqualTo(" name=Tom ");
+        assertThat(json).isEqualTo("{\"name\":");
+        assertThat(xml).isEqualTo("<book><title></book>");
+    }
+
+    @Test
+    void should_keep_body_with_dtd_entities_unexpanded() {
+        // given
+        final String body = "<!DOCTYPE book [<!ENTITY title \"Java\">]><book><title>&title;</title></book>";
+
+        // when
+        final String canonical = CanonicalBody.of(body);
+
+        // then
+        assertThat(canonical).isEqualTo(body);
+    }
+}
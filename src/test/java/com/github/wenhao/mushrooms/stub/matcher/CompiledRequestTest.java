@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Header;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.google.common.collect.ImmutableList;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledRequestTest {
+
+    @Test
+    void should_compile_stub_request_once() {
+        // given
+        final Request stub = Request.builder()
+                .path("http://127.0.0.1:8080/test(.*)")
+                .method("P.*")
+                .headers(ImmutableList.of(Header.builder().name("key").value("value").build()))
+                .body("{\"id\":1}")
+                .build();
+
+        // when
+        final CompiledRequest compiled = CompiledRequest.of(stub);
+
+        // then
+        assertThat(CompiledRequest.of(compiled)).isSameAs(compiled);
+        assertThat(compiled.getPath()).isEqualTo(stub.getPath());
+        assertThat(compiled.getPathPattern().getKind()).isEqualTo(FieldKind.PREFIX);
+        assertThat(compiled.getPathPattern().getText()).isEqualTo("http://127.0.0.1:8080/test");
+        assertThat(compiled.getMethodPattern().getKind()).isEqualTo(FieldKind.PREFIX);
+        assertThat(compiled.getHeaderIndex().accepts("KEY", "value")).isTrue();
+        assertThat(compiled.getHeaderIndex().isEmpty()).isFalse();
+        assertThat(compiled.getParameterIndex().isEmpty()).isTrue();
+        assertThat(compiled.getBodyExpectation().getJson()).isNotNull();
+    }
+
+    @Test
+    void should_leave_absent_criteria_uncompiled() {
+        // given
+        final Request stub = Request.builder()
+                .build();
+
+        // when
+        final CompiledRequest compiled = CompiledRequest.of(stub);
+
+        // then
+        assertThat(compiled.getPathPattern()).isNull();
+        assertThat(compiled.getMethodPattern()).isNull();
+        assertThat(compiled.getBodyExpectation().getJson()).isNull();
+        assertThat(compiled.getBodyExpectation().getXpath()).isNull();
+    }
+
+    @Test
+    void should_extract_path_expressions() {
+        // given
+        final Request jsonPathStub = Request.builder()
+                .body("jsonPath:$.name")
+                .build();
+        final Request xpathStub = Request.builder()
+                .body("xpath:/bookstore/book")
+                .build();
+
+        // when
+        final BodyExpectation jsonPath = CompiledRequest.of(jsonPathStub).getBodyExpectation();
+        final BodyExpectation xpath = CompiledRequest.of(xpathStub).getBodyExpectation();
+
+        // then
+        assertThat(jsonPath.getJsonPath().getPath()).isEqualTo("$['name']");
+        assertThat(jsonPath.getJson()).isNull();
+        assertThat(xpath.getXpath().getExpression()).isEqualTo("/bookstore/book");
+        assertThat(xpath.getXmlAsJson()).isNull();
+    }
+
+    @Test
+    void should_detect_expression_body() {
+        // when
+        final boolean xpath = BodyExpectation.isExpression("xpath:/book");
+        final boolean jsonPath = BodyExpectation.isExpression("jsonPath:$.name");
+        final boolean json = BodyExpectation.isExpression("{\"name\":\"Tom\"}");
+
+        // then
+        assertThat(xpath).isTrue();
+        assertThat(jsonPath).isTrue();
+        assertThat(json).isFalse();
+    }
+
+    @Test
+    void should_classify_body_kind_once() {
+        // when
+        final CompiledRequest empty = CompiledRequest.of(Request.builder().body(" ").build());
+        final CompiledRequest jsonPath = CompiledRequest.of(Request.builder().body("jsonPath:$.name").build());
+        final CompiledRequest xpath = CompiledRequest.of(Request.builder().body("xpath:/book").build());
+        final CompiledRequest document = CompiledRequest.of(Request.builder().body("<book/>").build());
+
+        // then
+        assertThat(empty.getBodyKind()).isEqualTo(BodyKind.EMPTY);
+        assertThat(jsonPath.getBodyKind()).isEqualTo(BodyKind.JSON_PATH);
+        assertThat(xpath.getBodyKind()).isEqualTo(BodyKind.XPATH);
+        assertThat(document.getBodyKind()).isEqualTo(BodyKind.DOCUMENT);
+    }
+
+    @Test
+    void should_parse_document_representations_lazily_once() {
+        // given
+        final BodyExpectation xml = BodyExpectation.compile("<book><id>1</id></book>");
+        final BodyExpectation expression = BodyExpectation.compile("xpath:/book");
+
+        // when
+        final JSONObject xmlAsJson = xml.getXmlAsJson();
+
+        // then
+        assertThat(xml.getXmlAsJson()).isSameAs(xmlAsJson);
+        assertThat(xmlAsJson.getJSONObject("book").getInt("id")).isEqualTo(1);
+        assertThat(xml.getJson()).isNull();
+        assertThat(expression.getJson()).isNull();
+        assertThat(expression.getXmlAsJson()).isNull();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledXpathTest {
+
+    private final Document document = new ParsedBody(Request.builder().body("<bookstore><book><price>31.95</price></book></bookstore>").build())
+            .getXmlDocument();
+
+    @Test
+    void should_match_compiled_xpath() {
+        // given
+        final CompiledXpath xpath = CompiledXpath.compile("/bookstore/book[price>30]");
+
+        // when
+        final boolean matched = xpath.matches(document);
+
+        // then
+        assertThat(matched).isTrue();
+        assertThat(xpath.getExpression()).isEqualTo("/bookstore/book[price>30]");
+    }
+
+    @Test
+    void should_match_compiled_xpath_on_other_thread() {
+        // given
+        final CompiledXpath xpath = CompiledXpath.compile("/bookstore/book[price>40]");
+
+        // when
+        final boolean matched = CompletableFuture.supplyAsync(() -> xpath.matches(document)).join();
+
+        // then
+        assertThat(matched).isFalse();
+    }
+
+    @Test
+    void should_not_compile_invalid_xpath() {
+        // when
+        final CompiledXpath xpath = CompiledXpath.compile("/bookstore/book[");
+
+        // then
+        assertThat(xpath).isNull();
+    }
+
+    @Test
+    void should_not_match_if_xpath_cannot_be_evaluated() {
+        // given
+        final CompiledXpath xpath = CompiledXpath.compile("/bookstore/book[price>$minimum]");
+
+        // when
+        final boolean matched = xpath.matches(document);
+
+        // then
+        assertThat(matched).isFalse();
+    }
+
+
+    @Test
+    void should_match_body_the_same_whether_or_not_dom_was_parsed_first() {
+        // given
+        final CompiledXpath xpath = CompiledXpath.compile("/books/book[id='1']");
+        final String truncated = "<books><book><id>1</id></book>";
+        final String entity = "<!DOCTYPE books [<!ENTITY id \"1\">]><books><book><id>&id;</id></book></books>";
+
+        // when
+        final ParsedBody truncatedParsed = new ParsedBody(Request.builder().body(truncated).build());
+        truncatedParsed.getXmlDocument();
+        final ParsedBody entityParsed = new ParsedBody(Request.builder().body(entity).build());
+        entityParsed.getXmlDocument();
+
+        // then
+        assertThat(xpath.matches(new ParsedBody(Request.builder().body(truncated).build()))).isTrue();
+        assertThat(xpath.matches(truncatedParsed)).isTrue();
+        assertThat(xpath.matches(new ParsedBody(Request.builder().body(entity).build()))).isFalse();
+        assertThat(xpath.matches(entityParsed)).isFalse();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldPatternTest {
+
+    @Test
+    void should_match_literal_without_regex() {
+        // given
+        final FieldPattern pattern = FieldPattern.compile("http://127.0.0.1:8080/stub/book");
+
+        // when
+        final boolean matched = pattern.matches("http://127.0.0.1:8080/stub/book");
+        final boolean longer = pattern.matches("http://127.0.0.1:8080/stub/books");
+
+        // then
+        assertThat(pattern.getKind()).isEqualTo(FieldKind.LITERAL);
+        assertThat(matched).isTrue();
+        assertThat(longer).isFalse();
+    }
+
+    @Test
+    void should_match_dot_as_any_character_except_line_terminator() {
+        // given
+        final FieldPattern pattern = FieldPattern.compile("a.c");
+
+        // when
+        final boolean matched = pattern.matches("abc");
+        final boolean lineBreak = pattern.matches("a\nc");
+
+        // then
+        assertThat(matched).isTrue();
+        assertThat(lineBreak).isFalse();
+    }
+
+    @Test
+    void should_match_prefix() {
+        // given
+        final FieldPattern pattern = FieldPattern.compile("http://localhost:8080/stub(.*)");
+
+        // when
+        final boolean matched = pattern.matches("http://localhost:8080/stub/book?id=1");
+        final boolean mismatched = pattern.matches("http://localhost:8080/other");
+        final boolean multiline = pattern.matches("http://localhost:8080/stub\n");
+
+        // then
+        assertThat(pattern.getKind()).isEqualTo(FieldKind.PREFIX);
+        assertThat(pattern.getText()).isEqualTo("http://localhost:8080/stub");
+        assertThat(matched).isTrue();
+        assertThat(mismatched).isFalse();
+        assertThat(multiline).isFalse();
+    }
+
+    @Test
+    void should_match_suffix() {
+        // given
+        final FieldPattern pattern = FieldPattern.compile(".*/book");
+
+        // when
+        final boolean matched = pattern.matches("http://localhost:8080/stub/book");
+        final boolean mismatched = pattern.matches("http://localhost:8080/stub/books");
+        final boolean shorter = pattern.matches("ook");
+        final boolean multiline = pattern.matches("\r/book");
+
+        // then
+        assertThat(pattern.getKind()).isEqualTo(FieldKind.SUFFIX);
+        assertThat(matched).isTrue();
+        assertThat(mismatched).isFalse();
+        assertThat(shorter).isFalse();
+        assertThat(multiline).isFalse();
+    }
+
+    @Test
+    void should_fall_back_to_regex() {
+        // given
+        final FieldPattern pattern = FieldPattern.compile("[A-Z0-9]+");
+
+        // when
+        final boolean matched = pattern.matches("VALUE1");
+        final boolean mismatched = pattern.matches("value1");
+
+        // then
+        assertThat(pattern.getKind()).isEqualTo(FieldKind.REGEX);
+        assertThat(matched).isTrue();
+        assertThat(mismatched).isFalse();
+    }
+
+    @Test
+    void should_ignore_case_when_asked() {
+        // given
+        final FieldPattern literal = FieldPattern.compileIgnoringCase("Content-Type");
+        final FieldPattern regex = FieldPattern.compileIgnoringCase("x-[a-z]+");
+
+        // when
+        final boolean literalMatched = literal.matches("content-type");
+        final boolean regexMatched = regex.matches("X-TRACE");
+        final boolean caseSensitive = FieldPattern.compile("Content-Type").matches("content-type");
+
+        // then
+        assertThat(literalMatched).isTrue();
+        assertThat(regexMatched).isTrue();
+        assertThat(caseSensitive).isFalse();
+    }
+}
@@ -24,10 +24,14 @@ package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Header;
 import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.okhttp.interceptor.LazyRequest;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class HeaderMatcherTest {
@@ -123,4 +127,65 @@ class HeaderMatcherTest {
         assertThat(isMatch).isTrue();
 
     }
+
+    @Test
+    void should_match_header_names_ignoring_case() {
+        // given
+        final Request stub = Request.builder()
+                .headers(ImmutableList.of(Header.builder().name("Content-Type").value("application/json").build()))
+                .build();
+        final Request real = Request.builder()
+                .headers(ImmutableList.of(Header.builder().name("content-type").value("application/json").build()))
+                .build();
+
+        // when
+        final boolean isMatch = headerMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_match_okhttp_headers_of_parsed_request() {
+        // given
+        final Request stub = Request.builder()
+                .headers(ImmutableList.of(Header.builder().name("X-Trace").value("[0-9]+").build(),
+                        Header.builder().name("x-[a-z]+").value("on").build()))
+                .build();
+        final okhttp3.Request accepted = new okhttp3.Request.Builder().url("http://localhost/stub")
+                .header("x-trace", "42").header("X-Debug", "on").build();
+        final okhttp3.Request rejected = new okhttp3.Request.Builder().url("http://localhost/stub")
+                .header("X-Trace", "42").addHeader("X-Trace", "none").build();
+
+        // when
+        final boolean isMatch = headerMatcher.match(stub, new LazyRequest(accepted));
+        final boolean isRejected = headerMatcher.match(stub, new LazyRequest(rejected));
+
+        // then
+        assertThat(isMatch).isTrue();
+        assertThat(isRejected).isFalse();
+    }
+
+    @Test
+    void should_compile_only_declared_headers() {
+        // given
+        final Request stub = Request.builder()
+                .headers(ImmutableList.of(Header.builder().name("key").value("value").build()))
+                .build();
+
+        // when
+        final Optional<Predicate<Request>> compiled = headerMatcher.compile(stub);
+        final Optional<Predicate<Request>> undeclared = headerMatcher.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder()
+                    .headers(ImmutableList.of(Header.builder().name("Key").value("value").build()))
+                    .build())).isTrue();
+            assertThat(predicate.test(Request.builder()
+                    .headers(ImmutableList.of(Header.builder().name("key").value("other").build()))
+                    .build())).isFalse();
+        });
+        assertThat(undeclared).isEmpty();
+    }
 }
\ No newline at end of file
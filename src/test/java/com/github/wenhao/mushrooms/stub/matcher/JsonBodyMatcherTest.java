@@ -122,4 +122,107 @@ class JsonBodyMatcherTest {
         // then
         assertThat(isApplicable).isFalse();
     }
+
+    @Test
+    void should_match_json_array_ignoring_order() {
+        // given
+        final Request stub = Request.builder()
+                .body("[{\"id\":2},{\"id\":1}]")
+                .build();
+        final Request real = Request.builder()
+                .body("[{\"id\":1,\"name\":\"Juergen\"},{\"id\":2}]")
+                .build();
+
+        // when
+        final boolean isMatch = jsonBodyMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_match_json_scalar() {
+        // given
+        final Request stub = Request.builder()
+                .body("\"Juergen\"")
+                .build();
+        final Request real = Request.builder()
+                .body("\"Juergen\"")
+                .build();
+
+        // when
+        final boolean isMatch = jsonBodyMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_not_match_if_json_types_differ() {
+        // given
+        final Request stub = Request.builder()
+                .body("{\"id\":1}")
+                .build();
+        final Request real = Request.builder()
+                .body("[{\"id\":1}]")
+                .build();
+
+        // when
+        final boolean isMatch = jsonBodyMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isFalse();
+    }
+
+    @Test
+    void should_not_match_if_real_body_not_json() {
+        // given
+        final Request stub = Request.builder()
+                .body("{\"id\":1}")
+                .build();
+        final Request real = Request.builder()
+                .body("<id>1</id>")
+                .build();
+
+        // when
+        final boolean isMatch = jsonBodyMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isFalse();
+    }
+
+    @Test
+    void should_not_applicable_if_stub_is_json_path() {
+        // given
+        final Request stub = Request.builder()
+                .body("jsonPath:$.name")
+                .build();
+        final Request real = Request.builder()
+                .contentType("application/json")
+                .build();
+
+        // when
+        final boolean isApplicable = jsonBodyMatcher.isApplicable(stub, real);
+
+        // then
+        assertThat(isApplicable).isFalse();
+    }
+
+
+    @Test
+    void should_applicable_if_json_and_stub_is_json_document() {
+        // given
+        final Request stub = Request.builder()
+                .body("{\"name\":\"Tom\"}")
+                .build();
+        final Request real = Request.builder()
+                .contentType("application/json")
+                .build();
+
+        // when
+        final boolean isApplicable = jsonBodyMatcher.isApplicable(stub, real);
+
+        // then
+        assertThat(isApplicable).isTrue();
+    }
 }
\ No newline at end of file
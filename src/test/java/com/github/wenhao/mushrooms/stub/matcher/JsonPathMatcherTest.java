@@ -252,4 +252,87 @@ class JsonPathMatcherTest {
         // then
         assertThat(applicable).isFalse();
     }
+
+    @Test
+    void should_match_json_path_with_gson_provider() {
+        // given
+        final Request stub = Request.builder()
+                .body("jsonPath:$.books[?(@.price < 10)]")
+                .build();
+        final Request real = Request.builder()
+                .body("{\"books\":[{\"title\":\"Moby Dick\",\"price\":8.99},{\"title\":\"Sword of Honour\",\"price\":12.99}]}")
+                .contentType("application/json")
+                .build();
+        final Request parsedReal = new ParsedRequestFixture(new ParsedBody(real, JsonPathProvider.GSON));
+
+        // when
+        final boolean matched = jsonPathMatcher.match(stub, parsedReal);
+
+        // then
+        assertThat(matched).isTrue();
+    }
+
+    @Test
+    void should_not_match_if_json_path_selects_no_array() {
+        // given
+        final Request scalar = Request.builder()
+                .body("jsonPath:$.name")
+                .build();
+        final Request invalid = Request.builder()
+                .body("jsonPath:$.[")
+                .build();
+        final Request real = Request.builder()
+                .body("{\"name\":\"Juergen\",\"id\":1}")
+                .contentType("application/json")
+                .build();
+
+        // when
+        final boolean scalarMatched = jsonPathMatcher.match(scalar, real);
+        final boolean invalidMatched = jsonPathMatcher.match(invalid, real);
+
+        // then
+        assertThat(scalarMatched).isFalse();
+        assertThat(invalidMatched).isFalse();
+    }
+
+    @Test
+    void should_not_match_if_real_body_is_not_json() {
+        // given
+        final Request stub = Request.builder()
+                .body("jsonPath:$.name")
+                .build();
+        final Request real = Request.builder()
+                .body("{\"name\":")
+                .contentType("application/json")
+                .build();
+
+        // when
+        final boolean matched = jsonPathMatcher.match(stub, real);
+
+        // then
+        assertThat(matched).isFalse();
+    }
+
+    @Test
+    void should_fall_back_to_json_path_outside_simple_subset() {
+        // given
+        final Request deepScan = Request.builder()
+                .body("jsonPath:$..price")
+                .build();
+        final Request function = Request.builder()
+                .body("jsonPath:$.books.length()")
+                .build();
+        final Request real = Request.builder()
+                .body("{\"books\":[{\"title\":\"Moby Dick\",\"price\":8.99}]}")
+                .contentType("application/json")
+                .build();
+
+        // when
+        final boolean deepScanMatched = jsonPathMatcher.match(deepScan, real);
+        final boolean functionMatched = jsonPathMatcher.match(function, real);
+
+        // then
+        assertThat(deepScanMatched).isTrue();
+        assertThat(functionMatched).isFalse();
+    }
 }
\ No newline at end of file
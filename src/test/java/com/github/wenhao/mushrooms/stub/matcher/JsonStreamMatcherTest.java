@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonStreamMatcherTest {
+
+    @Test
+    void should_match_object_partially_while_skipping_unmentioned_fields() {
+        // given
+        final Object expected = JSONParser.parseJSON("{\"id\":1,\"book\":{\"name\":\"Java\"}}");
+
+        // when
+        final boolean isMatch = JsonStreamMatcher.matches(expected,
+                "{\"tags\":[{\"a\":[1,2]},null],\"book\":{\"price\":9.5,\"name\":\"Java\"},\"id\":1.0,\"ok\":true}");
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_not_match_on_first_difference() {
+        // given
+        final Object expected = JSONParser.parseJSON("{\"book\":{\"name\":\"Java\"},\"id\":1}");
+
+        // when
+        final boolean nested = JsonStreamMatcher.matches(expected, "{\"book\":{\"name\":\"Kotlin\"},\"id\":1}");
+        final boolean missing = JsonStreamMatcher.matches(expected, "{\"book\":{\"name\":\"Java\"}}");
+        final boolean duplicated = JsonStreamMatcher.matches(expected, "{\"id\":1,\"id\":1,\"book\":{\"name\":\"Java\"}}");
+        final boolean array = JsonStreamMatcher.matches(expected, "[{\"id\":1}]");
+        final boolean typed = JsonStreamMatcher.matches(expected, "{\"book\":\"Java\",\"id\":1}");
+
+        // then
+        assertThat(nested).isFalse();
+        assertThat(missing).isFalse();
+        assertThat(duplicated).isFalse();
+        assertThat(array).isFalse();
+        assertThat(typed).isFalse();
+    }
+
+    @Test
+    void should_match_arrays_in_any_order() {
+        // given
+        final Object expected = JSONParser.parseJSON("[{\"id\":1,\"tags\":[\"a\",\"b\"]},{\"id\":2,\"tags\":[]}]");
+
+        // when
+        final boolean isMatch = JsonStreamMatcher.matches(expected, "[{\"id\":2,\"tags\":[]},{\"tags\":[\"b\",\"a\"],\"id\":1}]");
+        final boolean duplicated = JsonStreamMatcher.matches(expected, "[{\"id\":2,\"id\":2,\"tags\":[]},{\"tags\":[\"b\",\"a\"],\"id\":1}]");
+
+        // then
+        assertThat(isMatch).isTrue();
+        assertThat(duplicated).isFalse();
+    }
+
+    @Test
+    void should_match_json_string_exactly() {
+        // given
+        final Object expected = JSONParser.parseJSON("\"Java\"");
+
+        // when
+        final boolean same = JsonStreamMatcher.matches(expected, "\"Java\"");
+        final boolean different = JsonStreamMatcher.matches(expected, "\"Kotlin\"");
+
+        // then
+        assertThat(same).isTrue();
+        assertThat(different).isFalse();
+    }
+
+    @Test
+    void should_not_match_malformed_body() {
+        // given
+        final Object expected = JSONParser.parseJSON("{\"id\":1,\"name\":null}");
+
+        // when
+        final boolean truncated = JsonStreamMatcher.matches(expected, "{\"id\":1,\"name\":");
+        final boolean empty = JsonStreamMatcher.matches(expected, "");
+        final boolean nulls = JsonStreamMatcher.matches(expected, "{\"id\":1,\"name\":null}");
+
+        // then
+        assertThat(truncated).isFalse();
+        assertThat(empty).isFalse();
+        assertThat(nulls).isTrue();
+    }
+}
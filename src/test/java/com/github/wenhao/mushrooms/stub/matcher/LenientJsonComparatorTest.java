@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.skyscreamer.jsonassert.JSONCompareMode.LENIENT;
+
+class LenientJsonComparatorTest {
+
+    @Test
+    void should_agree_with_jsonassert_lenient_mode() {
+        // given
+        final String[][] pairs = {
+                {"{\"a\":1}", "{\"a\":1.0,\"b\":2}"},
+                {"{\"a\":[1,2,2]}", "{\"a\":[2,1,2]}"},
+                {"{\"a\":[1,2,2]}", "{\"a\":[2,1,1]}"},
+                {"{\"a\":[1]}", "{\"a\":[1.0]}"},
+                {"{\"a\":[1,2]}", "{\"a\":[1]}"},
+                {"{\"a\":[]}", "{\"a\":[]}"},
+                {"[{\"id\":1,\"n\":\"x\"},{\"id\":2,\"n\":\"y\"}]", "[{\"id\":2,\"n\":\"y\"},{\"id\":1,\"n\":\"x\",\"z\":0}]"},
+                {"[{\"id\":1,\"n\":\"x\"},{\"id\":2,\"n\":\"y\"}]", "[{\"id\":2,\"n\":\"x\"},{\"id\":1,\"n\":\"y\"}]"},
+                {"[{\"id\":1},{\"id\":1}]", "[{\"id\":1},{\"id\":1,\"b\":2}]"},
+                {"[{\"id\":1},{\"id\":2}]", "[{\"id\":1},{\"id\":1}]"},
+                {"[{\"n\":{\"a\":1}},{\"n\":{\"a\":2}}]", "[{\"n\":{\"a\":2}},{\"n\":{\"a\":1}}]"},
+                {"[1,{\"a\":1},[2,3]]", "[[3,2],{\"a\":1,\"b\":1},1]"},
+                {"[1,{\"a\":1},[2,3]]", "[[3,2],{\"a\":2},1]"},
+                {"[1,{\"a\":1}]", "[1.0,{\"a\":1}]"},
+                {"{\"a\":null}", "{\"a\":null}"},
+                {"{\"a\":null}", "{\"a\":0}"},
+                {"{\"a\":\"1\"}", "{\"a\":1}"},
+                {"{\"a\":{\"b\":[true,false]}}", "{\"a\":{\"b\":[false,true]}}"},
+        };
+
+        for (final String[] pair : pairs) {
+            // when
+            final Object expected = JSONParser.parseJSON(pair[0]);
+            final Object actual = JSONParser.parseJSON(pair[1]);
+            final boolean jsonAssert = expected instanceof JSONObject
+                    ? JSONCompare.compareJSON((JSONObject) expected, (JSONObject) actual, LENIENT).passed()
+                    : JSONCompare.compareJSON((JSONArray) expected, (JSONArray) actual, LENIENT).passed();
+
+            // then
+            assertThat(LenientJsonComparator.matches(expected, actual)).as(pair[0] + " vs " + pair[1]).isEqualTo(jsonAssert);
+        }
+    }
+
+    @Test
+    void should_not_match_different_types() {
+        // when
+        final boolean objectAndArray = LenientJsonComparator.matches(new JSONObject(), new JSONArray());
+        final boolean stringAndBoolean = LenientJsonComparator.matches("true", Boolean.TRUE);
+
+        // then
+        assertThat(objectAndArray).isFalse();
+        assertThat(stringAndBoolean).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MapNamespaceContextTest {
+
+    private final MapNamespaceContext context = new MapNamespaceContext(Collections.singletonMap("m", "http://www.example.org/stock"));
+
+    @Test
+    void should_resolve_declared_prefix() {
+        // when
+        final String declared = context.getNamespaceURI("m");
+        final String undeclared = context.getNamespaceURI("soap");
+
+        // then
+        assertThat(declared).isEqualTo("http://www.example.org/stock");
+        assertThat(undeclared).isEmpty();
+    }
+
+    @Test
+    void should_find_prefix_of_namespace() {
+        // when
+        final String declared = context.getPrefix("http://www.example.org/stock");
+        final String undeclared = context.getPrefix("http://www.example.org/other");
+
+        // then
+        assertThat(declared).isEqualTo("m");
+        assertThat(undeclared).isNull();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaKindTest {
+
+    @Test
+    void should_classify_content_type() {
+        // when
+        final MediaKind json = MediaKind.of("application/json; charset=UTF-8");
+        final MediaKind problem = MediaKind.of("application/problem+json");
+        final MediaKind xml = MediaKind.of("text/xml; charset=utf-8");
+        final MediaKind atom = MediaKind.of("application/atom+xml");
+        final MediaKind soap = MediaKind.of("application/soap+xml; charset=utf-8");
+        final MediaKind form = MediaKind.of("application/x-www-form-urlencoded");
+        final MediaKind multipart = MediaKind.of("multipart/form-data; boundary=x");
+        final MediaKind text = MediaKind.of("text/plain");
+        final MediaKind binary = MediaKind.of("application/octet-stream");
+
+        // then
+        assertThat(json).isEqualTo(MediaKind.JSON);
+        assertThat(problem).isEqualTo(MediaKind.JSON);
+        assertThat(xml).isEqualTo(MediaKind.XML);
+        assertThat(atom).isEqualTo(MediaKind.XML);
+        assertThat(soap).isEqualTo(MediaKind.SOAP);
+        assertThat(form).isEqualTo(MediaKind.FORM);
+        assertThat(multipart).isEqualTo(MediaKind.FORM);
+        assertThat(text).isEqualTo(MediaKind.TEXT);
+        assertThat(binary).isEqualTo(MediaKind.BINARY);
+    }
+
+    @Test
+    void should_classify_missing_or_invalid_content_type_as_binary() {
+        // when
+        final MediaKind missing = MediaKind.of(null);
+        final MediaKind empty = MediaKind.of("");
+        final MediaKind invalid = MediaKind.of("json");
+
+        // then
+        assertThat(missing).isEqualTo(MediaKind.BINARY);
+        assertThat(empty).isEqualTo(MediaKind.BINARY);
+        assertThat(invalid).isEqualTo(MediaKind.BINARY);
+    }
+
+    @Test
+    void should_treat_soap_as_xml() {
+        assertThat(MediaKind.SOAP.isXml()).isTrue();
+        assertThat(MediaKind.XML.isXml()).isTrue();
+        assertThat(MediaKind.JSON.isXml()).isFalse();
+    }
+}
@@ -26,6 +26,9 @@ import com.github.wenhao.mushrooms.stub.domain.Request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class MethodMatcherTest {
@@ -53,4 +56,54 @@ public class MethodMatcherTest {
         // then
         assertThat(isMatch).isTrue();
     }
+
+    @Test
+    void should_not_match_method() {
+        // given
+        final Request stub = Request.builder()
+                .method("GET")
+                .build();
+        final Request real = Request.builder()
+                .method("POST")
+                .build();
+
+        // when
+        final boolean isMatch = methodMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isFalse();
+    }
+
+    @Test
+    void should_match_any_method_if_stub_method_is_empty() {
+        // given
+        final Request stub = Request.builder()
+                .build();
+        final Request real = Request.builder()
+                .method("POST")
+                .build();
+
+        // when
+        final boolean isMatch = methodMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_compile_only_declared_method() {
+        // given
+        final Request stub = Request.builder().method("P.*").build();
+
+        // when
+        final Optional<Predicate<Request>> compiled = methodMatcher.compile(stub);
+        final Optional<Predicate<Request>> undeclared = methodMatcher.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder().method("POST").build())).isTrue();
+            assertThat(predicate.test(Request.builder().method("GET").build())).isFalse();
+        });
+        assertThat(undeclared).isEmpty();
+    }
 }
@@ -24,10 +24,14 @@ package com.github.wenhao.mushrooms.stub.matcher;
 
 import com.github.wenhao.mushrooms.stub.domain.Parameter;
 import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.okhttp.interceptor.LazyRequest;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ParameterMatcherTest {
@@ -122,4 +126,81 @@ class ParameterMatcherTest {
         // then
         assertThat(isMatch).isTrue();
     }
+
+    @Test
+    void should_match_decoded_query_parameters_of_parsed_request() {
+        // given
+        final Request stub = Request.builder()
+                .parameters(ImmutableList.of(Parameter.builder().name("q").value("a b").build(),
+                        Parameter.builder().name("page").value("[0-9]+").build(),
+                        Parameter.builder().name("x-[a-z]+").value("on").build()))
+                .build();
+        final LazyRequest real = new LazyRequest(new okhttp3.Request.Builder()
+                .url("http://localhost/books?q=a%20b&page=1&page=2&x-debug=on").build());
+
+        // when
+        final boolean isMatch = parameterMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+        assertThat(real.getQueryParameters().get("page")).containsExactly("1", "2");
+        assertThat(real.getParameters()).hasSize(4);
+    }
+
+    @Test
+    void should_not_match_if_any_parameter_value_not_match() {
+        // given
+        final Request stub = Request.builder()
+                .parameters(ImmutableList.of(Parameter.builder().name("page").value("[0-9]+").build()))
+                .build();
+        final LazyRequest repeated = new LazyRequest(new okhttp3.Request.Builder().url("http://localhost/books?page=1&page=last").build());
+        final LazyRequest flag = new LazyRequest(new okhttp3.Request.Builder().url("http://localhost/books?page").build());
+
+        // when
+        final boolean repeatedMatch = parameterMatcher.match(stub, repeated);
+        final boolean flagMatch = parameterMatcher.match(stub, flag);
+
+        // then
+        assertThat(repeatedMatch).isFalse();
+        assertThat(flagMatch).isFalse();
+    }
+
+    @Test
+    void should_not_match_request_without_parameters_if_stub_declares_parameters() {
+        // given
+        final Request stub = Request.builder()
+                .parameters(ImmutableList.of(Parameter.builder().name("[a-z]*").value("[a-z]*").build()))
+                .build();
+        final LazyRequest parsed = new LazyRequest(new okhttp3.Request.Builder().url("http://localhost/books").build());
+        final Request plain = Request.builder().build();
+
+        // when
+        final boolean parsedMatch = parameterMatcher.match(stub, parsed);
+        final boolean plainMatch = parameterMatcher.match(stub, plain);
+
+        // then
+        assertThat(parsedMatch).isFalse();
+        assertThat(plainMatch).isFalse();
+    }
+
+    @Test
+    void should_compile_only_declared_parameters() {
+        // given
+        final Request stub = Request.builder()
+                .parameters(ImmutableList.of(Parameter.builder().name("key").value("value").build()))
+                .build();
+
+        // when
+        final Optional<Predicate<Request>> compiled = parameterMatcher.compile(stub);
+        final Optional<Predicate<Request>> undeclared = parameterMatcher.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder()
+                    .parameters(ImmutableList.of(Parameter.builder().name("key").value("value").build()))
+                    .build())).isTrue();
+            assertThat(predicate.test(Request.builder().build())).isFalse();
+        });
+        assertThat(undeclared).isEmpty();
+    }
 }
\ No newline at end of file
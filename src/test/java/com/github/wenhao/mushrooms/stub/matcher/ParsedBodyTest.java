@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParsedBodyTest {
+
+    @Test
+    void should_parse_each_representation_once() {
+        // given
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().body("{\"name\":\"Tom\"}").build());
+
+        // when
+        final Object json = parsedBody.getJson();
+        final Object documentContext = parsedBody.getDocumentContext();
+
+        // then
+        assertThat(((JSONObject) json).getString("name")).isEqualTo("Tom");
+        assertThat(parsedBody.getJson()).isSameAs(json);
+        assertThat(parsedBody.getDocumentContext()).isSameAs(documentContext);
+        assertThat(parsedBody.getDocumentContext().read("$.name", String.class)).isEqualTo("Tom");
+    }
+
+    @Test
+    void should_parse_namespace_aware_xml() {
+        // given
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().body("<s:book xmlns:s=\"urn:s\"><s:title>Java</s:title></s:book>").build());
+
+        // when
+        final Element root = parsedBody.getXmlDocument().getDocumentElement();
+
+        // then
+        assertThat(root.getLocalName()).isEqualTo("book");
+        assertThat(root.getNamespaceURI()).isEqualTo("urn:s");
+        assertThat(parsedBody.getXmlDocument().getDocumentElement()).isSameAs(root);
+    }
+
+    @Test
+    void should_yield_null_for_unparsable_body() {
+        // given
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().body("{\"book\":").build());
+
+        // when
+        final Object json = parsedBody.getJson();
+
+        // then
+        assertThat(json).isNull();
+        assertThat(parsedBody.getXmlDocument()).isNull();
+        assertThat(parsedBody.getXmlDocument()).isNull();
+    }
+
+    @Test
+    void should_share_parsed_body_of_parsed_request() {
+        // given
+        final ParsedBody shared = new ParsedBody(Request.builder().body("{}").build());
+        final Request plain = Request.builder().body("{}").build();
+
+        // when
+        final ParsedBody parsedBody = ParsedBody.of(new ParsedRequestFixture(shared));
+
+        // then
+        assertThat(parsedBody).isSameAs(shared);
+        assertThat(ParsedBody.of(plain)).isNotSameAs(ParsedBody.of(plain));
+    }
+
+    @Test
+    void should_compare_json_against_shared_tree_after_first_comparison() {
+        // given
+        final JsonBodyMatcher matcher = new JsonBodyMatcher();
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().body("{\"name\":\"Tom\",\"tags\":[1,2]}").build());
+        final Request realRequest = new ParsedRequestFixture(parsedBody);
+        final boolean comparedBefore = parsedBody.isJsonCompared();
+        final Request first = Request.builder().body("{\"tags\":[2,1]}").build();
+        final Request second = Request.builder().body("{\"name\":\"Tom\"}").build();
+        final Request third = Request.builder().body("{\"name\":\"Jerry\"}").build();
+
+        // when
+        final List<Boolean> matched = Arrays.asList(matcher.match(first, realRequest), matcher.match(second, realRequest), matcher.match(third, realRequest));
+
+        // then
+        assertThat(comparedBefore).isFalse();
+        assertThat(parsedBody.isJsonCompared()).isTrue();
+        assertThat(matched).containsExactly(true, true, false);
+    }
+
+    @Test
+    void should_classify_media_kind_once() {
+        // given
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().contentType("application/json").build());
+
+        // when
+        final MediaKind first = parsedBody.getMediaKind();
+        final MediaKind second = parsedBody.getMediaKind();
+
+        // then
+        assertThat(first).isEqualTo(MediaKind.JSON);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void should_reject_xml_declaring_dtd() {
+        // given
+        final ParsedBody internal = new ParsedBody(Request.builder()
+                .body("<!DOCTYPE book [<!ENTITY title \"Java\">]><book><title>&title;</title></book>").build());
+        final ParsedBody external = new ParsedBody(Request.builder()
+                .body("<!DOCTYPE book [<!ENTITY title SYSTEM \"file:///etc/hostname\">]><book><title>&title;</title></book>").build());
+
+        // when
+        final Document internalDocument = internal.getXmlDocument();
+        final Document externalDocument = external.getXmlDocument();
+
+        // then
+        assertThat(internalDocument).isNull();
+        assertThat(externalDocument).isNull();
+    }
+
+    @Test
+    void should_canonicalize_body_once() {
+        // given
+        final ParsedBody parsedBody = new ParsedBody(Request.builder().body("{\"name\":\"Tom\", \"id\":1}").build());
+
+        // when
+        final String canonical = parsedBody.getCanonicalBody();
+
+        // then
+        assertThat(canonical).isEqualTo("{\"id\":1,\"name\":\"Tom\"}");
+        assertThat(parsedBody.getCanonicalBody()).isSameAs(canonical);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import okhttp3.Headers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Real request that already carries a {@link ParsedBody}, as the interceptor's lazy request does.
+ */
+final class ParsedRequestFixture extends Request implements ParsedRequest {
+
+    private final ParsedBody parsedBody;
+
+    ParsedRequestFixture(final ParsedBody parsedBody) {
+        this.parsedBody = parsedBody;
+        setBody(parsedBody.body());
+    }
+
+    @Override
+    public ParsedBody getParsedBody() {
+        return parsedBody;
+    }
+
+    @Override
+    public Headers getOkHttpHeaders() {
+        return Headers.of();
+    }
+
+    @Override
+    public Map<String, List<String>> getQueryParameters() {
+        return Collections.emptyMap();
+    }
+}
@@ -27,6 +27,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.net.URISyntaxException;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -89,4 +91,37 @@ class PathMatcherTest {
         // then
         assertThat(isMatch).isFalse();
     }
+
+    @Test
+    void should_match_any_path_if_stub_path_is_empty() {
+        // given
+        final Request stub = Request.builder()
+                .build();
+        final Request real = Request.builder()
+                .path("http://127.0.0.1:8080/test-path")
+                .build();
+
+        // when
+        final boolean isMatch = pathMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isTrue();
+    }
+
+    @Test
+    void should_compile_only_declared_path() {
+        // given
+        final Request stub = Request.builder().path("http://127.0.0.1:8080/test-path").build();
+
+        // when
+        final Optional<Predicate<Request>> compiled = pathMatcher.compile(stub);
+        final Optional<Predicate<Request>> undeclared = pathMatcher.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder().path("http://127.0.0.1:8080/test-path").build())).isTrue();
+            assertThat(predicate.test(Request.builder().path("http://127.0.0.1:8080/other").build())).isFalse();
+        });
+        assertThat(undeclared).isEmpty();
+    }
 }
\ No newline at end of file
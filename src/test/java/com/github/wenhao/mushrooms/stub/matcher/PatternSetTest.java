@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+class PatternSetTest {
+
+    @Test
+    void should_report_every_matching_regex_in_one_pass() {
+        // given
+        final PatternSet patterns = PatternSet.compile(ImmutableList.of(
+                "http://(.*)/book/(\\d+)", "(.*)/book/1", "(.*)/book/2", "http://(\\w+):8080/(.*)"));
+
+        // when
+        final BitSet matched = patterns.matches("http://localhost:8080/book/1");
+
+        // then
+        assertThat(matched.stream()).containsExactly(0, 1, 3);
+    }
+
+    @Test
+    void should_match_whole_value_only() {
+        // given
+        final PatternSet patterns = PatternSet.compile(ImmutableList.of("(.*)/book", "a+"));
+
+        // when
+        final BitSet trailing = patterns.matches("/book\n");
+        final BitSet partial = patterns.matches("aab");
+
+        // then
+        assertThat(trailing.isEmpty()).isTrue();
+        assertThat(partial.isEmpty()).isTrue();
+    }
+
+    @Test
+    void should_keep_uncombinable_regex_apart() {
+        // given
+        final PatternSet patterns = PatternSet.compile(ImmutableList.of(
+                "(a)\\1", "(?<id>\\d+)", "\\Q(x)", "(?x) b # comment", "c+"));
+
+        // when
+        final BitSet repeated = patterns.matches("aa");
+        final BitSet digits = patterns.matches("42");
+        final BitSet quoted = patterns.matches("(x)");
+        final BitSet commented = patterns.matches("b");
+        final BitSet combined = patterns.matches("ccc");
+
+        // then
+        assertThat(repeated.stream()).containsExactly(0);
+        assertThat(digits.stream()).containsExactly(1);
+        assertThat(quoted.stream()).containsExactly(2);
+        assertThat(commented.stream()).containsExactly(3);
+        assertThat(combined.stream()).containsExactly(4);
+    }
+
+    @Test
+    void should_match_absent_regex_with_anything() {
+        // given
+        final PatternSet patterns = PatternSet.compile(Arrays.asList(null, "x"));
+
+        // when
+        final BitSet matched = patterns.matches("y");
+
+        // then
+        assertThat(matched.stream()).containsExactly(0);
+    }
+
+    @Test
+    void should_compile_and_match_thousands_of_regexes() {
+        // given
+        final PatternSet patterns = PatternSet.compile(IntStream.range(0, 5000)
+                .mapToObj(i -> "http://(\\w+):8080/book/" + i + "/(.*)")
+                .collect(toList()));
+
+        // when
+        final BitSet first = patterns.matches("http://localhost:8080/book/0/title");
+        final BitSet last = patterns.matches("http://localhost:8080/book/4999/title");
+        final BitSet none = patterns.matches("http://localhost:8080/book/5000/title");
+
+        // then
+        assertThat(first.stream()).containsExactly(0);
+        assertThat(last.stream()).containsExactly(4999);
+        assertThat(none.isEmpty()).isTrue();
+    }
+}
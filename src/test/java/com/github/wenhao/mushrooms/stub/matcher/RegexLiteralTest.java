@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegexLiteralTest {
+
+    @Test
+    void should_detect_literal() {
+        // when
+        final boolean literal = RegexLiteral.isLiteral("http://localhost:8080/stub/book");
+
+        // then
+        assertThat(literal).isTrue();
+    }
+
+    @Test
+    void should_not_detect_literal_if_contains_meta_character() {
+        // when
+        final boolean dotted = RegexLiteral.isLiteral("http://127.0.0.1:8080/stub");
+        final boolean absent = RegexLiteral.isLiteral(null);
+
+        // then
+        assertThat(dotted).isFalse();
+        assertThat(absent).isFalse();
+    }
+
+    @Test
+    void should_read_literal_prefix() {
+        // when
+        final String prefix = RegexLiteral.literalPrefix("http://localhost:8080/stub(.*)");
+
+        // then
+        assertThat(prefix).isEqualTo("http://localhost:8080/stub");
+    }
+
+    @Test
+    void should_exclude_quantified_character_from_prefix() {
+        // when
+        final String optional = RegexLiteral.literalPrefix("http://localhost:8080/books?");
+        final String repeated = RegexLiteral.literalPrefix("a{2}");
+
+        // then
+        assertThat(optional).isEqualTo("http://localhost:8080/book");
+        assertThat(repeated).isEmpty();
+    }
+
+    @Test
+    void should_not_read_prefix_from_alternation() {
+        // when
+        final String alternation = RegexLiteral.literalPrefix("http://a/x|http://b/y");
+        final String absent = RegexLiteral.literalPrefix(null);
+
+        // then
+        assertThat(alternation).isEmpty();
+        assertThat(absent).isEmpty();
+    }
+
+    @Test
+    void should_read_whole_literal_as_prefix() {
+        // when
+        final String prefix = RegexLiteral.literalPrefix("http://localhost:8080/stub");
+
+        // then
+        assertThat(prefix).isEqualTo("http://localhost:8080/stub");
+    }
+
+    @Test
+    void should_keep_unquantified_dot_as_wildcard_in_prefix() {
+        // when
+        final String dotted = RegexLiteral.literalPrefix("http://127.0.0.1:8080/stub(.*)");
+        final String repeated = RegexLiteral.literalPrefix("http://localhost:8080/.*");
+
+        // then
+        assertThat(dotted).isEqualTo("http://127.0.0.1:8080/stub");
+        assertThat(repeated).isEqualTo("http://localhost:8080/");
+    }
+
+    @Test
+    void should_match_prefix_with_wildcard() {
+        // when
+        final boolean matched = RegexLiteral.matchesPrefix("http://127.0.0.1/", "http://127x0.0.1/x", 17);
+        final boolean mismatched = RegexLiteral.matchesPrefix("http://127.0.0.1/", "http://128.0.0.1/", 17);
+
+        // then
+        assertThat(matched).isTrue();
+        assertThat(mismatched).isFalse();
+    }
+
+    @Test
+    void should_detect_wildcard_literal() {
+        // when
+        final boolean dotted = RegexLiteral.isWildcardLiteral("http://127.0.0.1:8080/stub");
+        final boolean quantified = RegexLiteral.isWildcardLiteral("http://127.0.0.1:8080/.*");
+        final boolean absent = RegexLiteral.isWildcardLiteral(null);
+
+        // then
+        assertThat(dotted).isTrue();
+        assertThat(quantified).isFalse();
+        assertThat(absent).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestMatcherTest {
+
+    @Test
+    void should_rank_built_in_matchers_by_cost() {
+        // given
+        final RequestMatcher custom = (stubRequest, realRequest) -> true;
+        final RequestMatcher body = new BodyMatcher(ImmutableList.of(new JsonBodyMatcher()));
+
+        // when
+        final int[] costs = Arrays.asList(new MethodMatcher(), new PathMatcher(), new HeaderMatcher(), new ParameterMatcher(), custom, body)
+                .stream()
+                .mapToInt(RequestMatcher::cost)
+                .toArray();
+
+        // then
+        assertThat(costs).isSorted();
+        assertThat(custom.cost()).isEqualTo(RequestMatcher.DEFAULT_COST);
+    }
+
+    @Test
+    void should_compile_custom_matcher_to_its_match() {
+        // given
+        final RequestMatcher custom = (stubRequest, realRequest) -> "POST".equals(realRequest.getMethod());
+
+        // when
+        final Optional<Predicate<Request>> compiled = custom.compile(Request.builder().build());
+
+        // then
+        assertThat(compiled).hasValueSatisfying(predicate -> {
+            assertThat(predicate.test(Request.builder().method("POST").build())).isTrue();
+            assertThat(predicate.test(Request.builder().method("GET").build())).isFalse();
+        });
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleJsonPathTest {
+
+    private static final List<String> BODIES = Arrays.asList(
+            "{\"store\":{\"book\":[{\"title\":\"Moby Dick\",\"price\":8.99,\"isbn\":\"0-553\"},{\"title\":\"Sword of Honour\",\"price\":12.99}],"
+                    + "\"bicycle\":{\"color\":\"red\",\"price\":19.95}},\"expensive\":10}",
+            "{\"a\":[{\"p\":5},{\"p\":\"5\"},{\"p\":\"5.0\"},{\"p\":5.0},{\"p\":null},{\"q\":1},{\"p\":true},{\"p\":\"true\"},{\"p\":\"x\"},"
+                    + "{\"p\":[1]},{\"p\":{\"r\":1}},1,[2]]}",
+            "{\"a\":{\"p\":1,\"x\":{\"p\":2},\"y\":[]},\"tags\":[],\"list\":[[1],[]],\"name\":null}",
+            "[{\"a\":1},{\"a\":\"b\"}]",
+            "{\"a\":[{\"p\":{\"q\":3}},{\"p\":{\"q\":\"3\"}},{\"p\":-1}],\"b\":5}");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "$", "$.store", "$.store.book", "$['store']['book']", "$.store.book[0]", "$.store.book[5]", "$.store.book[*]", "$.store.*",
+            "$.store.book[*].isbn", "$.store.book[*].missing", "$.store.bicycle[?(@.price == '19.95')]", "$.store.bicycle[?(@.price == 20)]",
+            "$.store.book[?(@.price < 10)]", "$.store.book[?(@.price > 100)]", "$.a", "$.a[*]", "$.a[*].p",
+            "$.a[?(@.p == 5)]", "$.a[?(@.p == '5')]", "$.a[?(@.p == '5.0')]", "$.a[?(@.p == 5.0)]", "$.a[?(@.p != 5)]", "$.a[?(@.p < 6)]",
+            "$.a[?(@.p <= 5)]", "$.a[?(@.p >= '5')]", "$.a[?(@.p > 'a')]", "$.a[?(@.p == true)]", "$.a[?(@.p == 'true')]",
+            "$.a[?(@.p == null)]", "$.a[?(@.p != null)]", "$.a[?(@.p == \"x\")]", "$.a[?(@.p.q > 2.5)]", "$.a[?(@.p.q == 3)]",
+            "$.a[?(@.p < -0.5)]", "$.a[?( @.p<2 )]", "$.a.x[?(@.p == 2)]", "$.a[?(@.p == 1)]", "$.a[*][?(@.p == 2)]", "$.a.y", "$.tags",
+            "$.list[*]", "$.list[0]", "$.name", "$.b[*]", "$.b.c", "$[?(@.a == 1)]", "$[0]", "$[*].a", "$.a.p", "$.a[0].p");
+
+    @Test
+    void should_match_like_json_path() {
+        for (JsonPathProvider provider : JsonPathProvider.values()) {
+            for (String path : PATHS) {
+                final SimpleJsonPath simpleJsonPath = SimpleJsonPath.compile(path);
+                for (String body : BODIES) {
+                    // given
+                    final DocumentContext document = JsonPath.using(provider.getConfiguration()).parse(body);
+                    final boolean expected = readsNonEmptyArray(document, path);
+
+                    // when
+                    final boolean matched = simpleJsonPath.matches(document);
+
+                    // then
+                    assertThat(matched).as("%s on %s with %s", path, body, provider).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void should_compile_simple_paths_only() {
+        // when
+        final SimpleJsonPath filter = SimpleJsonPath.compile("$.store.book[?(@.price < 10)]");
+        final SimpleJsonPath existence = SimpleJsonPath.compile("$.store.book[?(@.isbn)]");
+        final SimpleJsonPath deepScan = SimpleJsonPath.compile("$..book");
+        final SimpleJsonPath function = SimpleJsonPath.compile("$.store.book.length()");
+        final SimpleJsonPath relative = SimpleJsonPath.compile("store.book");
+        final SimpleJsonPath absent = SimpleJsonPath.compile(null);
+
+        // then
+        assertThat(filter).isNotNull();
+        assertThat(existence).isNull();
+        assertThat(deepScan).isNull();
+        assertThat(function).isNull();
+        assertThat(relative).isNull();
+        assertThat(absent).isNull();
+    }
+
+    private static boolean readsNonEmptyArray(final DocumentContext document, final String path) {
+        try {
+            final Object result = document.read(path);
+            final JsonProvider provider = document.configuration().jsonProvider();
+            return provider.isArray(result) && provider.length(result) != 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Header;
+import com.github.wenhao.mushrooms.stub.domain.Parameter;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpecificityTest {
+
+    @Test
+    void should_rank_literal_path_before_prefix_before_regex() {
+        // given
+        final CompiledRequest anyPath = CompiledRequest.of(Request.builder().build());
+        final CompiledRequest regex = CompiledRequest.of(Request.builder().path("http://localhost:8080/(books|magazines)").build());
+        final CompiledRequest prefix = CompiledRequest.of(Request.builder().path("http://localhost:8080/books/.*").build());
+        final CompiledRequest literal = CompiledRequest.of(Request.builder().path("http://localhost:8080/books/1").build());
+
+        // when
+        final List<CompiledRequest> ranked = ImmutableList.of(anyPath, regex, prefix, literal).stream()
+                .sorted(Specificity.MOST_SPECIFIC_FIRST)
+                .collect(toList());
+
+        // then
+        assertThat(ranked).containsExactly(literal, prefix, regex, anyPath);
+    }
+
+    @Test
+    void should_rank_more_criteria_first() {
+        // given
+        final CompiledRequest pathOnly = CompiledRequest.of(Request.builder().path("http://localhost:8080/books").build());
+        final CompiledRequest declared = CompiledRequest.of(Request.builder()
+                .path("http://localhost:8080/books")
+                .method("POST")
+                .headers(ImmutableList.of(Header.builder().name("key").value("value").build()))
+                .parameters(ImmutableList.of(Parameter.builder().name("id").value("1").build()))
+                .body("{\"id\":1}")
+                .build());
+
+        // when
+        final List<CompiledRequest> ranked = ImmutableList.of(pathOnly, declared).stream()
+                .sorted(Specificity.MOST_SPECIFIC_FIRST)
+                .collect(toList());
+
+        // then
+        assertThat(Specificity.criteria(declared)).isEqualTo(4);
+        assertThat(ranked).containsExactly(declared, pathOnly);
+    }
+
+    @Test
+    void should_rank_longer_fixed_path_first() {
+        // given
+        final CompiledRequest shortRegex = CompiledRequest.of(Request.builder().path("http://localhost:8080/[ab]").build());
+        final CompiledRequest longRegex = CompiledRequest.of(Request.builder().path("http://localhost:8080/books/[ab]").build());
+        final CompiledRequest suffix = CompiledRequest.of(Request.builder().path(".*/books").build());
+
+        // when
+        final List<CompiledRequest> ranked = ImmutableList.of(shortRegex, longRegex).stream()
+                .sorted(Specificity.MOST_SPECIFIC_FIRST)
+                .collect(toList());
+
+        // then
+        assertThat(ranked).containsExactly(longRegex, shortRegex);
+        assertThat(Specificity.pathRank(suffix)).isEqualTo(2);
+        assertThat(Specificity.fixedPathLength(suffix)).isEqualTo("/books".length());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingXpathTest {
+
+    private static final List<String> BODIES = Arrays.asList(
+            "<soap:Envelope xmlns:soap=\"urn:soap\" soap:encodingStyle=\"urn:encoding\"><soap:Body xmlns:m=\"urn:stock\">"
+                    + "<m:GetBookRequest id=\"1\"><m:BookName>Java</m:BookName><m:Author>Gosling</m:Author></m:GetBookRequest>"
+                    + "<m:GetBookRequest id=\"2\"><m:BookName>Go</m:BookName></m:GetBookRequest></soap:Body></soap:Envelope>",
+            "<Envelope><Body><GetBookRequest id=\"1\"><BookName>J<b>av</b>a</BookName></GetBookRequest>"
+                    + "<GetBookRequest><BookName>Kotlin</BookName><BookName><![CDATA[Java]]></BookName></GetBookRequest></Body></Envelope>",
+            "<Envelope><Header><BookName>Java</BookName></Header><Body/></Envelope>",
+            "<bookstore><book category=\"WEB\"><title lang=\"en\">Learning XML</title><price>31.95</price></book></bookstore>",
+            "<bookstore><book><title>Go</title></book><book category=\"WEB\"><title>XML</title></book></bookstore>");
+
+    private static final List<String> EXPRESSIONS = Arrays.asList(
+            "/Envelope", "/Envelope/Body", "/Envelope/Body/GetBookRequest", "/Envelope/Body/GetBookRequest[BookName='Java']",
+            "/Envelope/Body/GetBookRequest[BookName='Go']", "/Envelope/Body/GetBookRequest[@id='1'][BookName='Java']",
+            "/Envelope/Body/GetBookRequest[@id='2'][BookName='Java']", "/Envelope/Body/GetBookRequest[BookName='Java'][Author='Gosling']",
+            "/Envelope/Body[GetBookRequest='Java']", "/Envelope[Header='Java']/Body", "/Envelope/Body/GetBookRequest/BookName",
+            "/Envelope/Body/BookName", "/bookstore/book[@category='WEB']/title[@lang='en']", "/bookstore/book[title=\"XML\"]",
+            "/bookstore/book[@category = 'WEB'][title = 'Go']", "/bookstore/book/price", "/book");
+
+    @Test
+    void should_match_like_dom_xpath_on_local_names() {
+        assertMatchesLikeDom(Collections.emptyMap(), EXPRESSIONS);
+    }
+
+    @Test
+    void should_match_like_dom_xpath_with_declared_namespaces() {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("soap", "urn:soap");
+        namespaces.put("m", "urn:stock");
+        assertMatchesLikeDom(namespaces, Arrays.asList(
+                "/soap:Envelope/soap:Body/m:GetBookRequest[m:BookName='Java']", "/soap:Envelope/soap:Body/m:GetBookRequest[BookName='Java']",
+                "/soap:Envelope[@soap:encodingStyle='urn:encoding']/soap:Body", "/soap:Envelope[@encodingStyle='urn:encoding']",
+                "/soap:Envelope/soap:Body/m:GetBookRequest[@id='2']", "/Envelope/Body", "/bookstore/book[@category='WEB']"));
+    }
+
+    @Test
+    void should_not_compile_outside_subset() {
+        // when
+        final StreamingXpath descendant = StreamingXpath.compile("//GetBookRequest", null);
+        final StreamingXpath number = StreamingXpath.compile("/bookstore/book[price>30]", null);
+        final StreamingXpath prefixedAttribute = StreamingXpath.compile("/Envelope[@soap:encodingStyle='x']", null);
+        final StreamingXpath undeclaredPrefix = StreamingXpath.compile("/m:Envelope", Collections.singletonMap("soap", "urn:soap"));
+        final StreamingXpath undeclaredPredicatePrefix = StreamingXpath.compile("/Envelope[m:Body='x']", Collections.singletonMap("soap", "urn:soap"));
+
+        // then
+        assertThat(descendant).isNull();
+        assertThat(number).isNull();
+        assertThat(prefixedAttribute).isNull();
+        assertThat(undeclaredPrefix).isNull();
+        assertThat(undeclaredPredicatePrefix).isNull();
+    }
+
+    @Test
+    void should_stop_reading_once_answer_is_known() {
+        // given
+        final StreamingXpath xpath = StreamingXpath.compile("/Envelope/Body/GetBookRequest[BookName='Java']", null);
+
+        // when
+        final boolean matched = xpath.matches("<Envelope><Body><GetBookRequest><BookName>Java</BookName></GetBookRequest><unclosed>");
+        final boolean rootMismatched = xpath.matches("<Other><unclosed>");
+        final boolean malformed = xpath.matches("<Envelope><Body></Envelope>");
+
+        // then
+        assertThat(matched).isTrue();
+        assertThat(rootMismatched).isFalse();
+        assertThat(malformed).isFalse();
+    }
+
+    @Test
+    void should_accept_truncated_body_once_matched_unlike_dom() {
+        // given
+        final String truncated = "<books><book><id>1</id></book>";
+        final StreamingXpath xpath = StreamingXpath.compile("/books/book[id='1']", null);
+
+        // when
+        final boolean streamed = xpath.matches(truncated);
+        final Document document = new ParsedBody(Request.builder().body(truncated).build()).getXmlDocument();
+
+        // then
+        assertThat(streamed).isTrue();
+        assertThat(document).isNull();
+    }
+
+    @Test
+    void should_not_expand_dtd_entities() {
+        // given
+        final StreamingXpath xpath = StreamingXpath.compile("/books/book[id='1']", null);
+
+        // when
+        final boolean matched = xpath.matches("<!DOCTYPE books [<!ENTITY id \"1\">]><books><book><id>&id;</id></book></books>");
+
+        // then
+        assertThat(matched).isFalse();
+    }
+
+    private static void assertMatchesLikeDom(final Map<String, String> namespaces, final List<String> expressions) {
+        for (String expression : expressions) {
+            for (String body : BODIES) {
+                // given
+                final StreamingXpath streaming = StreamingXpath.compile(expression, namespaces);
+                final boolean expected = CompiledXpath.compile(expression, namespaces).matches(new ParsedBody(Request.builder().body(body).build())
+                        .getXmlDocument());
+
+                // when
+                final boolean matched = streaming.matches(body);
+
+                // then
+                assertThat(matched).as("%s on %s", expression, body).isEqualTo(expected);
+            }
+        }
+    }
+}
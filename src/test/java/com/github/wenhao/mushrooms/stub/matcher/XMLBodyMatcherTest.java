@@ -215,4 +215,21 @@ class XMLBodyMatcherTest {
         // then
         assertThat(isMatch).isFalse();
     }
+
+    @Test
+    void should_not_match_if_real_xml_not_valid() {
+        // given
+        final Request stub = Request.builder()
+                .body("<bookstore><book>Everyday Italian</book></bookstore>")
+                .build();
+        final Request real = Request.builder()
+                .body("<bookstore><book>Everyday Italian</book>")
+                .build();
+
+        // when
+        final boolean isMatch = xmlBodyMatcher.match(stub, real);
+
+        // then
+        assertThat(isMatch).isFalse();
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.json.JSONObject;
+import org.json.XML;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlStreamMatcherTest {
+
+    private static final List<String> BODIES = Arrays.asList(
+            "<a>1</a>", "<a>01</a>", "<a> x </a>", "<a/>", "<a></a>", "<a x=\"1\"/>", "<a x='1'>t</a>", "<x/>", "<a>null</a>",
+            "<a><b>1</b><b>2</b></a>", "<a><b>1</b></a>", "<a><b>2</b><b>1</b></a>", "<a><b><c>1</c></b></a>",
+            "<a><b><c>1</c><d>2</d></b></a>", "<a><b><c>1</c></b><b><c>2</c></b></a>", "<a><b><c>2</c><c>1</c><c>3</c></b></a>",
+            "<a>t<b>1</b>u</a>", "<a>t<!--c-->u</a>", "<a><![CDATA[ 12 ]]></a>", "<a>x<![CDATA[y]]></a>", "<a>x &amp; y</a>",
+            "<s:a xmlns:s=\"urn:s\"><s:b>1</s:b></s:a>", "<a xmlns=\"urn:d\"><b>1</b></a>", "<?xml version=\"1.0\"?>\n<!-- c --><a><b>true</b></a>",
+            "<a b=\"1\"><b>2</b></a>", "<a><b x=\"1\">2</b></a>", "<a><b x=\"1\"/></a>", "<a><b/><b/></a>", "<a>\n  <b>1.50</b>\n</a>",
+            "<a><e/><b>1</b></a>", "<a><b>1</b><c><d>1</d></c></a>", "<a><c><d>2</d></c></a>", "<a>12345678901</a>",
+            "<bookstore><book category=\"COOKING\"><title lang=\"en\">Everyday Italian</title><year>2005</year></book></bookstore>",
+            "<bookstore><book category=\"COOKING\"><year>2005</year><title lang=\"en\">Everyday Italian</title></book></bookstore>");
+
+    @Test
+    void should_match_like_lenient_comparison_of_converted_xml() {
+        for (String stub : BODIES) {
+            for (String body : BODIES) {
+                // given
+                final JSONObject expected = XML.toJSONObject(stub);
+                final boolean converted = LenientJsonComparator.matchesObject(expected, XML.toJSONObject(body));
+
+                // when
+                final boolean streamed = XmlStreamMatcher.matches(expected, body);
+
+                // then
+                assertThat(streamed).as("%s against %s", stub, body).isEqualTo(converted);
+            }
+        }
+    }
+
+    @Test
+    void should_stop_reading_at_first_mismatch() {
+        // given
+        final JSONObject expected = XML.toJSONObject("<Envelope><Body><Book>Java</Book></Body></Envelope>");
+
+        // when
+        final boolean otherRoot = XmlStreamMatcher.matches(expected, "<Other><unclosed>");
+        final boolean otherValue = XmlStreamMatcher.matches(expected, "<Envelope><Body><Book>Go</Book><unclosed>");
+        final boolean repeated = XmlStreamMatcher.matches(expected, "<Envelope><Body><Book>Java</Book></Body><Body><unclosed>");
+
+        // then
+        assertThat(otherRoot).isFalse();
+        assertThat(otherValue).isFalse();
+        assertThat(repeated).isFalse();
+    }
+
+    @Test
+    void should_not_match_malformed_or_empty_body() {
+        // given
+        final JSONObject expected = XML.toJSONObject("<Envelope><Body/></Envelope>");
+
+        // when
+        final boolean malformed = XmlStreamMatcher.matches(expected, "<Envelope><Body></Envelope>");
+        final boolean empty = XmlStreamMatcher.matches(expected, "");
+        final boolean anything = XmlStreamMatcher.matches(new JSONObject(), "<Envelope/>");
+
+        // then
+        assertThat(malformed).isFalse();
+        assertThat(empty).isFalse();
+        assertThat(anything).isTrue();
+    }
+
+    @Test
+    void should_not_expand_dtd_entities() {
+        // given
+        final JSONObject expected = XML.toJSONObject("<books><id>1</id></books>");
+
+        // when
+        final boolean matched = XmlStreamMatcher.matches(expected, "<!DOCTYPE books [<!ENTITY id \"1\">]><books><id>&id;</id></books>");
+
+        // then
+        assertThat(matched).isFalse();
+    }
+}
@@ -26,6 +26,10 @@ import com.github.wenhao.mushrooms.stub.domain.Request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class XpathBodyMatcherTest {
@@ -245,4 +249,71 @@ class XpathBodyMatcherTest {
         // then
         assertThat(isApplicable).isFalse();
     }
+
+    @Test
+    void should_not_match_if_request_body_is_not_xml() {
+        // given
+        final Request stubRequest = Request.builder()
+                .body("xpath:/bookstore/book")
+                .build();
+        final Request realRequest = Request.builder()
+                .body("<bookstore>")
+                .build();
+
+        // when
+        final boolean isMatched = matcher.match(stubRequest, realRequest);
+
+        // then
+        assertThat(isMatched).isFalse();
+    }
+
+    @Test
+    void should_not_match_if_xpath_is_invalid() {
+        // given
+        final Request stubRequest = Request.builder()
+                .body("xpath:/bookstore/book[")
+                .build();
+        final Request realRequest = Request.builder()
+                .body("<bookstore/>")
+                .build();
+
+        // when
+        final boolean isMatched = matcher.match(stubRequest, realRequest);
+
+        // then
+        assertThat(isMatched).isFalse();
+    }
+
+    @Test
+    void should_match_with_declared_namespaces() {
+        // given
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("soap", "http://www.w3.org/2003/05/soap-envelope/");
+        namespaces.put("m", "http://www.example.org/stock");
+        final Request stubRequest = Request.builder()
+                .body("xpath:/soap:Envelope/soap:Body/m:GetBookRequest[m:BookName='Java']")
+                .namespaces(namespaces)
+                .build();
+        final Request otherNamespace = Request.builder()
+                .body("xpath:/soap:Envelope/soap:Body/m:GetBookRequest[m:BookName='Java']")
+                .namespaces(Collections.singletonMap("soap", "http://schemas.xmlsoap.org/soap/envelope/"))
+                .build();
+        final Request realRequest = Request.builder()
+                .body("<s:Envelope xmlns:s=\"http://www.w3.org/2003/05/soap-envelope/\">\n" +
+                        "    <s:Body xmlns:stock=\"http://www.example.org/stock\">\n" +
+                        "        <stock:GetBookRequest>\n" +
+                        "            <stock:BookName>Java</stock:BookName>\n" +
+                        "        </stock:GetBookRequest>\n" +
+                        "    </s:Body>\n" +
+                        "</s:Envelope>")
+                .build();
+
+        // when
+        final boolean isMatched = matcher.match(stubRequest, realRequest);
+        final boolean isOtherMatched = matcher.match(otherNamespace, realRequest);
+
+        // then
+        assertThat(isMatched).isTrue();
+        assertThat(isOtherMatched).isFalse();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XpathLocalNamesTest {
+
+    @Test
+    void should_rewrite_element_name_tests() {
+        // when
+        final String rewritten = XpathLocalNames.rewrite("/Envelope/soap:Body//GetBookRequest[BookName='Java']");
+
+        // then
+        assertThat(rewritten).isEqualTo("/*[local-name()='Envelope']/*[local-name()='Body']//*[local-name()='GetBookRequest']"
+                + "[*[local-name()='BookName']='Java']");
+    }
+
+    @Test
+    void should_keep_functions_axes_attributes_and_variables() {
+        // when
+        final String rewritten = XpathLocalNames.rewrite("count(child::book[@lang and attribute::id]/text()) > $minimum * 2 or m:*");
+
+        // then
+        assertThat(rewritten).isEqualTo("count(child::*[local-name()='book'][@lang and attribute::id]/text()) > $minimum * 2 or *");
+    }
+
+    @Test
+    void should_keep_operator_names_and_numbers() {
+        // when
+        final String rewritten = XpathLocalNames.rewrite("/a[price div 2 >= .5 and ../b != \"x y\"]/*");
+
+        // then
+        assertThat(rewritten).isEqualTo("/*[local-name()='a'][*[local-name()='price'] div 2 >= .5 and ../*[local-name()='b'] != \"x y\"]/*");
+    }
+
+    @Test
+    void should_leave_untokenizable_expression() {
+        // when
+        final String rewritten = XpathLocalNames.rewrite("/a[#]");
+
+        // then
+        assertThat(rewritten).isEqualTo("/a[#]");
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class LazyRequestTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    @Test
+    void should_forward_body_read_by_matchers_without_writing_it_again() throws IOException {
+        // given
+        final AtomicInteger writes = new AtomicInteger();
+        final LazyRequest request = new LazyRequest(new okhttp3.Request.Builder()
+                .url("http://localhost:8080/books")
+                .post(countingBody("{\"name\":\"Java\"}", writes))
+                .build());
+        final String body = request.getBody();
+        final Object json = request.getParsedBody().getJson();
+
+        // when
+        final okhttp3.Request forwardable = request.forwardable();
+
+        // then
+        assertThat(body).isEqualTo("{\"name\":\"Java\"}");
+        assertThat(json).isNotNull();
+        assertThat(read(forwardable.body())).isEqualTo(body);
+        assertThat(read(forwardable.body())).isEqualTo(body);
+        assertThat(forwardable.body().contentType()).isEqualTo(JSON);
+        assertThat(writes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void should_forward_original_request_when_body_was_not_read() {
+        // given
+        final okhttp3.Request original = new okhttp3.Request.Builder()
+                .url("http://localhost:8080/books")
+                .post(RequestBody.create(JSON, "{}"))
+                .build();
+
+        // when
+        final okhttp3.Request forwardable = new LazyRequest(original).forwardable();
+
+        // then
+        assertThat(forwardable).isSameAs(original);
+    }
+
+    @Test
+    void should_read_request_parts_lazily() {
+        // given
+        final LazyRequest request = new LazyRequest(new okhttp3.Request.Builder()
+                .url("http://localhost:8080/books?name=a%20b&name=c&flag")
+                .header("X-Tenant", "a")
+                .get()
+                .build());
+
+        // when
+        final String path = request.getPath();
+
+        // then
+        assertThat(path).isEqualTo("http://localhost:8080/books");
+        assertThat(request.getQueryParameters())
+                .containsExactly(entry("name", Arrays.asList("a b", "c")), entry("flag", Collections.singletonList("")));
+        assertThat(request.getParameters()).extracting("name", "value").hasSize(3);
+        assertThat(request.getHeaders()).extracting("name").containsExactly("X-Tenant");
+        assertThat(request.getBody()).isEmpty();
+        assertThat(request.getContentType()).isEmpty();
+        assertThat(request.hasBody()).isFalse();
+    }
+
+    @Test
+    void should_hash_body_bytes() {
+        // given
+        final LazyRequest request = new LazyRequest(new okhttp3.Request.Builder()
+                .url("http://localhost:8080/books")
+                .post(RequestBody.create(JSON, "{}"))
+                .build());
+        final LazyRequest empty = new LazyRequest(new okhttp3.Request.Builder().url("http://localhost:8080/books").get().build());
+
+        // when
+        final String hash = request.bodyHash().hex();
+
+        // then
+        assertThat(hash).isEqualTo(new Buffer().writeUtf8("{}").sha256().hex());
+        assertThat(empty.bodyHash().size()).isZero();
+    }
+
+    private static RequestBody countingBody(final String body, final AtomicInteger writes) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public void writeTo(final BufferedSink sink) throws IOException {
+                writes.incrementAndGet();
+                sink.writeUtf8(body);
+            }
+        };
+    }
+
+    private static String read(final RequestBody body) throws IOException {
+        final Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+}
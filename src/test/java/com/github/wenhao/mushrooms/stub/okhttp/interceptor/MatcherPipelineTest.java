@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.config.MatchOptions;
+import com.github.wenhao.mushrooms.stub.config.MatchPlan;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import com.github.wenhao.mushrooms.stub.matcher.RequestMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatcherPipelineTest {
+
+    private final Request realRequest = Request.builder().path("http://localhost:8080/books").build();
+    private final MatchPlan plan = plan("http://localhost:8080/books", "http://localhost:8080/authors");
+
+    @Test
+    void should_run_rejecting_matcher_first_once_reranked() {
+        // given
+        final AtomicInteger accepting = new AtomicInteger();
+        final MatcherPipeline pipeline = new MatcherPipeline(Arrays.asList(
+                matcher(1, (stubRequest, request) -> accepting.incrementAndGet() > 0),
+                matcher(5, (stubRequest, request) -> stubRequest.getPath().equals(request.getPath()))), () -> true);
+
+        // when
+        final List<Boolean> matched = IntStream.range(0, 2048)
+                .mapToObj(index -> pipeline.matches(plan, plan.getStubs().get(1), realRequest))
+                .distinct()
+                .collect(toList());
+
+        // then
+        assertThat(matched).containsExactly(false);
+        assertThat(accepting.get()).isEqualTo(1023);
+    }
+
+    @Test
+    void should_match_same_stubs_in_fixed_and_adaptive_order() {
+        // given
+        final List<RequestMatcher> matchers = Arrays.asList(
+                matcher(1, (stubRequest, request) -> true),
+                matcher(5, (stubRequest, request) -> stubRequest.getPath().equals(request.getPath())));
+        final AtomicInteger evaluations = new AtomicInteger();
+        final MatcherPipeline pipeline = new MatcherPipeline(matchers, () -> evaluations.incrementAndGet() > 1000);
+
+        // when
+        final List<List<Boolean>> matched = IntStream.range(0, 2048)
+                .mapToObj(index -> Arrays.asList(pipeline.matches(plan, plan.getStubs().get(0), realRequest),
+                        pipeline.matches(plan, plan.getStubs().get(1), realRequest)))
+                .distinct()
+                .collect(toList());
+
+        // then
+        assertThat(matched).containsExactly(Arrays.asList(true, false));
+    }
+
+    @Test
+    void should_compile_stubs_of_new_plan() {
+        // given
+        final MatcherPipeline pipeline = new MatcherPipeline(Collections.singletonList(
+                (stubRequest, request) -> stubRequest.getPath().equals(request.getPath())), () -> false);
+        final MatchPlan reset = plan("http://localhost:8080/authors", "http://localhost:8080/books");
+        final boolean before = pipeline.matches(plan, plan.getStubs().get(0), realRequest);
+
+        // when
+        final boolean after = pipeline.matches(reset, reset.getStubs().get(0), realRequest);
+
+        // then
+        assertThat(before).isTrue();
+        assertThat(after).isFalse();
+    }
+
+    private static MatchPlan plan(final String... paths) {
+        return MatchPlan.compile(Arrays.stream(paths)
+                .map(path -> Stub.builder().request(Request.builder().path(path).method("GET").build()).build())
+                .collect(toList()), MatchOptions.builder().build());
+    }
+
+    private static RequestMatcher matcher(final int cost, final RequestMatcher matcher) {
+        return new RequestMatcher() {
+            @Override
+            public boolean match(final Request stubRequest, final Request realRequest) {
+                return matcher.match(stubRequest, realRequest);
+            }
+
+            @Override
+            public int cost() {
+                return cost;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import okhttp3.MediaType;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayableRequestBodyTest {
+
+    @Test
+    void should_replay_buffered_bytes_on_every_write() throws IOException {
+        // given
+        final Buffer buffer = new Buffer().writeUtf8("<book/>");
+        final ReplayableRequestBody body = new ReplayableRequestBody(MediaType.parse("text/xml"), buffer);
+        final Buffer first = new Buffer();
+        final Buffer second = new Buffer();
+
+        // when
+        body.writeTo(first);
+        body.writeTo(second);
+
+        // then
+        assertThat(first.readUtf8()).isEqualTo("<book/>");
+        assertThat(second.readUtf8()).isEqualTo("<book/>");
+        assertThat(buffer.size()).isEqualTo(7);
+        assertThat(body.contentLength()).isEqualTo(7);
+        assertThat(body.contentType()).isEqualTo(MediaType.parse("text/xml"));
+    }
+}
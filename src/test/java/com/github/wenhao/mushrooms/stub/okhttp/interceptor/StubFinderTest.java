@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2019, Wen Hao <wenhao@126.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.wenhao.mushrooms.stub.okhttp.interceptor;
+
+import com.github.wenhao.mushrooms.stub.config.CompiledStub;
+import com.github.wenhao.mushrooms.stub.config.StubConfiguration;
+import com.github.wenhao.mushrooms.stub.domain.Header;
+import com.github.wenhao.mushrooms.stub.domain.Request;
+import com.github.wenhao.mushrooms.stub.domain.Stub;
+import com.github.wenhao.mushrooms.stub.matcher.BodyMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.HeaderMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.JsonBodyMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.JsonPathMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.MethodMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.ParameterMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.PathMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.RequestMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.XMLBodyMatcher;
+import com.github.wenhao.mushrooms.stub.matcher.XpathBodyMatcher;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubFinderTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final String BOOK = "http://localhost:8080/books/1";
+
+    private final List<Stub> stubs = Arrays.asList(
+            stub("http://localhost:8080/books/(.*)", "GET", null, "tenant"),
+            stub("http://localhost:8080/books/(.*)", "GET", null, "any"),
+            stub(BOOK, "GET", null, "book"));
+
+    @Test
+    void should_find_first_declared_stub_while_adaptive_order_changes() {
+        // given
+        stubs.get(0).getRequest().setHeaders(Collections.singletonList(Header.builder().name("X-Tenant").value("a").build()));
+        final StubConfiguration configuration = new StubConfiguration(true, false, stubs);
+        final StubFinder stubFinder = new StubFinder(configuration, requestMatchers());
+
+        // when
+        final String fixed = response(stubFinder.find(tenant(BOOK, "b")));
+        configuration.setAdaptiveMatcherOrder(true);
+        final Set<String> adaptive = IntStream.range(0, 3000)
+                .mapToObj(index -> response(stubFinder.find(tenant(BOOK, "b"))))
+                .collect(toSet());
+
+        // then
+        assertThat(fixed).isEqualTo("any");
+        assertThat(adaptive).containsExactly("any");
+    }
+
+    @Test
+    void should_find_most_specific_stub_in_best_match_mode() {
+        // given
+        final StubConfiguration configuration = new StubConfiguration(true, false, stubs);
+        configuration.setBestMatch(true);
+        final StubFinder stubFinder = new StubFinder(configuration, requestMatchers());
+
+        // when
+        final Optional<CompiledStub> stub = stubFinder.find(get(BOOK));
+
+        // then
+        assertThat(response(stub)).isEqualTo("book");
+    }
+
+    @Test
+    void should_find_stub_of_new_plan_after_stubs_are_reset() {
+        // given
+        final StubConfiguration configuration = new StubConfiguration(true, false, stubs);
+        configuration.setMatchCacheSize(10);
+        final StubFinder stubFinder = new StubFinder(configuration, requestMatchers());
+        final String cached = response(stubFinder.find(get(BOOK)));
+
+        // when
+        configuration.setStubs(Collections.singletonList(stub(BOOK, "GET", null, "replaced")));
+        final String found = response(stubFinder.find(get(BOOK)));
+
+        // then
+        assertThat(cached).isEqualTo("tenant");
+        assertThat(found).isEqualTo("replaced");
+        assertThat(configuration.getPlan().getMatchCache().get().getMisses()).isEqualTo(1);
+        assertThat(configuration.getPlan().getMatchCache().get().getHits()).isZero();
+    }
+
+    @Test
+    void should_answer_cached_result_for_same_request() {
+        // given
+        final StubConfiguration configuration = new StubConfiguration(true, false, stubs);
+        configuration.setMatchCacheSize(10);
+        final StubFinder stubFinder = new StubFinder(configuration, requestMatchers());
+
+        // when
+        final String first = response(stubFinder.find(get(BOOK)));
+        final String second = response(stubFinder.find(get(BOOK)));
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(configuration.getPlan().getMatchCache().get().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void should_remember_method_and_path_no_stub_accepts() {
+        // given
+        final StubConfiguration configuration = new StubConfiguration(true, false, stubs);
+        final StubFinder stubFinder = new StubFinder(configuration, requestMatchers());
+
+        // when
+        final Optional<CompiledStub> stub = stubFinder.find(post(BOOK, "{}"));
+
+        // then
+        assertThat(stub).isEmpty();
+        assertThat(configuration.getPlan().getMisses().contains("POST", BOOK)).isTrue();
+        assertThat(configuration.getPlan().getMisses().contains("GET", BOOK)).isFalse();
+    }
+
+    @Test
+    void should_skip_stubs_declaring_body_for_request_without_body() {
+        // given
+        final List<Stub> bodyStubs = Arrays.asList(stub(BOOK, "GET", "{\"name\":\"Java\"}", "body"), stub(BOOK, "GET", null, "plain"));
+        final StubFinder stubFinder = new StubFinder(new StubConfiguration(true, false, bodyStubs), requestMatchers());
+
+        // when
+        final Optional<CompiledStub> stub = stubFinder.find(get(BOOK));
+
+        // then
+        assertThat(response(stub)).isEqualTo("plain");
+    }
+
+    @Test
+    void should_match_strict_body_stubs_by_canonical_body_only() {
+        // given
+        final List<Stub> bodyStubs = Arrays.asList(stub(BOOK, "POST", "{\"name\":\"Java\"}", "partial"),
+                stub(BOOK, "POST", "{\"name\":\"Java\",\"id\":1}", "exact"));
+        final StubConfiguration lenient = new StubConfiguration(true, false, bodyStubs);
+        final StubConfiguration strict = new StubConfiguration(true, false, bodyStubs);
+        strict.setStrictBody(true);
+
+        // when
+        final Optional<CompiledStub> lenientStub = new StubFinder(lenient, requestMatchers()).find(post(BOOK, "{\"id\":1,\"name\":\"Java\"}"));
+        final Optional<CompiledStub> strictStub = new StubFinder(strict, requestMatchers()).find(post(BOOK, "{\"id\":1,\"name\":\"Java\"}"));
+
+        // then
+        assertThat(response(lenientStub)).isEqualTo("partial");
+        assertThat(response(strictStub)).isEqualTo("exact");
+    }
+
+    @Test
+    void should_run_every_matcher_without_partitions() {
+        // given
+        final List<RequestMatcher> matchers = Collections.singletonList((stubRequest, realRequest) -> stubRequest.getPath().endsWith("(.*)"));
+        final StubFinder stubFinder = new StubFinder(new StubConfiguration(true, false, stubs), matchers);
+
+        // when
+        final Optional<CompiledStub> stub = stubFinder.find(post(BOOK, "{}"));
+
+        // then
+        assertThat(response(stub)).isEqualTo("tenant");
+    }
+
+    private static List<RequestMatcher> requestMatchers() {
+        final BodyMatcher bodyMatcher = new BodyMatcher(Arrays.asList(new JsonBodyMatcher(), new JsonPathMatcher(), new XMLBodyMatcher(),
+                new XpathBodyMatcher()));
+        return Arrays.asList(new PathMatcher(), new ParameterMatcher(), new MethodMatcher(), new HeaderMatcher(), bodyMatcher);
+    }
+
+    private static Stub stub(final String path, final String method, final String body, final String response) {
+        return Stub.builder()
+                .request(Request.builder().path(path).method(method).body(body).build())
+                .response(response)
+                .build();
+    }
+
+    private static LazyRequest get(final String url) {
+        return new LazyRequest(new okhttp3.Request.Builder().url(url).get().build());
+    }
+
+    private static LazyRequest tenant(final String url, final String tenant) {
+        return new LazyRequest(new okhttp3.Request.Builder().url(url).header("X-Tenant", tenant).get().build());
+    }
+
+    private static LazyRequest post(final String url, final String body) {
+        return new LazyRequest(new okhttp3.Request.Builder().url(url).post(RequestBody.create(JSON, body)).build());
+    }
+
+    private static String response(final Optional<CompiledStub> stub) {
+        return stub.map(CompiledStub::getStub).map(Stub::getResponse).orElse(null);
+    }
+}